@@ -74,7 +74,7 @@ public abstract class PlatformCommand<C> {
             return;
         }
 
-        UtilConcurrency.runAsync(() -> this.executeSync(sender, args));
+        UtilConcurrency.runAsync("command:" + this.name, () -> this.executeSync(sender, args));
     }
 
     protected void executeSync(C sender, String[] args) {
@@ -138,7 +138,7 @@ public abstract class PlatformCommand<C> {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        return CompletableFuture.supplyAsync(Collections::<String>emptyList, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE)
+        return CompletableFuture.supplyAsync(Collections::<String>emptyList, UtilConcurrency.namedExecutor("command:tab-complete"))
                 .thenCompose(ignore -> {
                     if (args.length > 0) {
                         for (PlatformCommand<C> subCommand : this.subCommands) {
@@ -1,8 +1,13 @@
 package com.envyful.api.concurrency;
 
+import com.envyful.api.concurrency.metrics.TaskStats;
+
 import javax.annotation.Nullable;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -18,6 +23,11 @@ public class AsyncTaskBuilder {
     protected Runnable task;
     protected Runnable cancelTask = null;
     protected Supplier<Boolean> cancelCondition = null;
+    protected OverlapPolicy overlapPolicy = OverlapPolicy.FIXED_RATE;
+    protected long jitterMillis = 0;
+    protected long maxRuntimeMillis = -1;
+    protected boolean interruptOnTimeout = false;
+    protected String name = "repeating";
 
     /**
      *
@@ -82,6 +92,60 @@ public class AsyncTaskBuilder {
         return this;
     }
 
+    /**
+     *
+     * Sets what happens when a run takes longer than the interval. Defaults to {@link OverlapPolicy#FIXED_RATE}
+     *
+     * @param overlapPolicy The policy
+     * @return The builder
+     */
+    public AsyncTaskBuilder overlapPolicy(OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+        return this;
+    }
+
+    /**
+     *
+     * Adds a random delay of up to the given millis to the start of the task (and, for
+     * {@link OverlapPolicy#FIXED_DELAY}, to every interval) so that tasks with the same interval
+     * don't all run at the same time
+     *
+     * @param jitterMillis The maximum random delay in millis
+     * @return The builder
+     */
+    public AsyncTaskBuilder jitter(long jitterMillis) {
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    /**
+     *
+     * Logs a warning, with the current stack trace of the task, when a single run takes longer than the given time.
+     * With {@link OverlapPolicy#FIXED_RATE} interrupting stops the scheduler thread's current run, later runs are
+     * unaffected
+     *
+     * @param maxRuntimeMillis The maximum expected runtime in millis
+     * @param interrupt If the thread running the task should be interrupted when the time is exceeded
+     * @return The builder
+     */
+    public AsyncTaskBuilder maxRuntime(long maxRuntimeMillis, boolean interrupt) {
+        this.maxRuntimeMillis = maxRuntimeMillis;
+        this.interruptOnTimeout = interrupt;
+        return this;
+    }
+
+    /**
+     *
+     * Sets the name the task is recorded under in {@link UtilConcurrency#METRICS} and in watchdog warnings
+     *
+     * @param name The name
+     * @return The builder
+     */
+    public AsyncTaskBuilder name(String name) {
+        this.name = name;
+        return this;
+    }
+
     /**
      *
      * Runs the task
@@ -92,16 +156,46 @@ public class AsyncTaskBuilder {
             throw new IllegalArgumentException("Task cannot be null");
         }
 
+        if (this.overlapPolicy != OverlapPolicy.FIXED_RATE) {
+            new PolicyRunnable(this).start();
+            return;
+        }
+
+        WatchedRun watchedRun = new WatchedRun(this);
+        TaskStats stats = UtilConcurrency.METRICS.getStats(this.name);
+        Runnable task = () -> {
+            long startedAt = System.nanoTime();
+            boolean success = false;
+
+            stats.recordSubmitted();
+            stats.recordStarted(0);
+
+            try {
+                watchedRun.run();
+                success = true;
+            } finally {
+                stats.recordFinished(System.nanoTime() - startedAt, success);
+            }
+        };
+
         AtomicReference<ScheduledFuture<?>> runningTask =
                 new AtomicReference<>();
         ScheduledFuture<?> scheduledFuture =
                 UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE
                         .scheduleAtFixedRate(new CancelableRunnable(
                 task, this.cancelTask, runningTask, cancelCondition
-        ), this.delayMillis, this.intervalMillis, TimeUnit.MILLISECONDS);
+        ), this.delayMillis + this.randomJitter(), this.intervalMillis, TimeUnit.MILLISECONDS);
         runningTask.set(scheduledFuture);
     }
 
+    protected long randomJitter() {
+        if (this.jitterMillis <= 0) {
+            return 0;
+        }
+
+        return ThreadLocalRandom.current().nextLong(this.jitterMillis + 1);
+    }
+
     public static class CancelableRunnable implements Runnable {
 
         private final Runnable task;
@@ -138,4 +232,176 @@ public class AsyncTaskBuilder {
             this.task.run();
         }
     }
+
+    /**
+     *
+     * Runs the task on the async executor following the builder's {@link OverlapPolicy}
+     *
+     */
+    private static final class PolicyRunnable {
+
+        private final AsyncTaskBuilder builder;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private final AtomicBoolean missedRun = new AtomicBoolean(false);
+        private final WatchedRun watchedRun;
+
+        private volatile boolean cancelled = false;
+        private volatile ScheduledFuture<?> trigger;
+
+        private PolicyRunnable(AsyncTaskBuilder builder) {
+            this.builder = builder;
+            this.watchedRun = new WatchedRun(builder);
+        }
+
+        private void start() {
+            long initialDelay = this.builder.delayMillis + this.builder.randomJitter();
+
+            if (this.builder.overlapPolicy == OverlapPolicy.FIXED_DELAY) {
+                this.trigger = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(
+                        this::trigger, initialDelay, TimeUnit.MILLISECONDS);
+            } else {
+                this.trigger = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(
+                        this::trigger, initialDelay, this.builder.intervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void trigger() {
+            if (this.cancelled) {
+                return;
+            }
+
+            if (this.builder.cancelCondition != null && this.builder.cancelCondition.get()) {
+                this.cancel();
+                return;
+            }
+
+            if (!this.running.compareAndSet(false, true)) {
+                if (this.builder.overlapPolicy == OverlapPolicy.COALESCE) {
+                    this.missedRun.set(true);
+                }
+
+                return;
+            }
+
+            try {
+                UtilConcurrency.namedExecutor(this.builder.name).execute(this::run);
+            } catch (RejectedExecutionException e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Repeating task " + this.builder.name +
+                        " was rejected by the executor", e));
+                this.running.set(false);
+                this.scheduleNext();
+            }
+        }
+
+        private void run() {
+            try {
+                this.watchedRun.run();
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing repeating task " + this.builder.name, e));
+            } finally {
+                this.running.set(false);
+            }
+
+            if (this.builder.overlapPolicy == OverlapPolicy.COALESCE && this.missedRun.getAndSet(false)) {
+                this.trigger();
+            } else {
+                this.scheduleNext();
+            }
+        }
+
+        private void scheduleNext() {
+            if (this.cancelled || this.builder.overlapPolicy != OverlapPolicy.FIXED_DELAY) {
+                return;
+            }
+
+            this.trigger = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(this::trigger,
+                    this.builder.intervalMillis + this.builder.randomJitter(), TimeUnit.MILLISECONDS);
+        }
+
+        private void cancel() {
+            this.cancelled = true;
+
+            ScheduledFuture<?> trigger = this.trigger;
+
+            if (trigger != null) {
+                trigger.cancel(false);
+            }
+
+            if (this.builder.cancelTask != null) {
+                this.builder.cancelTask.run();
+            }
+        }
+    }
+
+    /**
+     *
+     * Runs the builder's task, watching it with the {@link AsyncTaskBuilder#maxRuntime(long, boolean)} watchdog.
+     * The interrupt from the watchdog is cleared once the run ends so it never leaks into whatever the thread runs next
+     *
+     */
+    private static final class WatchedRun {
+
+        private final AsyncTaskBuilder builder;
+        private final Object runLock = new Object();
+
+        private Thread runningThread;
+        private long runId = 0;
+
+        private WatchedRun(AsyncTaskBuilder builder) {
+            this.builder = builder;
+        }
+
+        private void run() {
+            long runId;
+
+            synchronized (this.runLock) {
+                this.runningThread = Thread.currentThread();
+                runId = ++this.runId;
+            }
+
+            ScheduledFuture<?> watchdog = this.startWatchdog(runId);
+
+            try {
+                this.builder.task.run();
+            } finally {
+                synchronized (this.runLock) {
+                    this.runningThread = null;
+                }
+
+                if (watchdog != null) {
+                    watchdog.cancel(false);
+                }
+
+                Thread.interrupted();
+            }
+        }
+
+        private ScheduledFuture<?> startWatchdog(long runId) {
+            if (this.builder.maxRuntimeMillis <= 0) {
+                return null;
+            }
+
+            Thread thread = Thread.currentThread();
+
+            return UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> {
+                Exception trace;
+
+                synchronized (this.runLock) {
+                    if (this.runningThread != thread || this.runId != runId) {
+                        return;
+                    }
+
+                    trace = new Exception("Stack trace of " + thread.getName());
+                    trace.setStackTrace(thread.getStackTrace());
+
+                    if (this.builder.interruptOnTimeout) {
+                        thread.interrupt();
+                    }
+                }
+
+                UtilLogger.logger().ifPresent(logger -> logger.warn("Repeating task " + this.builder.name +
+                        " has been running for more than " + this.builder.maxRuntimeMillis + "ms", trace));
+            }, this.builder.maxRuntimeMillis, TimeUnit.MILLISECONDS);
+        }
+    }
 }
@@ -0,0 +1,187 @@
+package com.envyful.api.concurrency;
+
+import com.envyful.api.concurrency.timer.ScheduledTask;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ *
+ * Shared flag used to stop a chain of async work. Once cancelled, either manually or by passing its deadline,
+ * every callback registered with {@link CancellationToken#onCancel(Runnable)} is run once and every future bound with
+ * {@link CancellationToken#bind(CompletableFuture)} is completed exceptionally with the reason.
+ * <br>
+ * Long running tasks should check {@link CancellationToken#throwIfCancelled()} between steps so abandoned work stops
+ * as soon as possible
+ *
+ */
+public class CancellationToken {
+
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+
+    private volatile Throwable reason = null;
+    private volatile ScheduledTask deadline = null;
+
+    /**
+     *
+     * Creates a token that is only cancelled manually
+     *
+     */
+    public CancellationToken() {}
+
+    /**
+     *
+     * Creates a token that is cancelled with a {@link TimeoutException} once the timeout has passed
+     *
+     * @param timeout The time before the token is cancelled
+     * @return The token
+     */
+    public static CancellationToken withTimeout(Duration timeout) {
+        CancellationToken token = new CancellationToken();
+
+        token.deadline = UtilConcurrency.TIMER.schedule(
+                () -> token.cancel(new TimeoutException("Deadline of " + timeout.toMillis() + "ms passed")),
+                timeout.toMillis(), TimeUnit.MILLISECONDS);
+        return token;
+    }
+
+    /**
+     *
+     * Creates a token that is cancelled when this one is, but can also be cancelled on its own
+     *
+     * @return The child token
+     */
+    public CancellationToken child() {
+        CancellationToken child = new CancellationToken();
+
+        this.onCancel(() -> child.cancel(this.reason));
+        return child;
+    }
+
+    /**
+     *
+     * Cancels the token with a {@link CancellationException}
+     *
+     * @return true if this call cancelled the token
+     */
+    public boolean cancel() {
+        return this.cancel(new CancellationException("Task was cancelled"));
+    }
+
+    /**
+     *
+     * Cancels the token, running all cancel callbacks
+     *
+     * @param reason Why the token was cancelled
+     * @return true if this call cancelled the token
+     */
+    public boolean cancel(Throwable reason) {
+        synchronized (this) {
+            if (this.reason != null) {
+                return false;
+            }
+
+            this.reason = reason;
+        }
+
+        this.cancelDeadline();
+
+        for (Runnable callback : this.callbacks) {
+            if (this.callbacks.remove(callback)) {
+                this.runCallback(callback);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     *
+     * Stops the deadline from cancelling the token, used once the work it was guarding has finished
+     *
+     */
+    public void cancelDeadline() {
+        ScheduledTask deadline = this.deadline;
+
+        if (deadline != null) {
+            deadline.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return this.reason != null;
+    }
+
+    /**
+     *
+     * Gets why the token was cancelled
+     *
+     * @return The reason, or null if the token has not been cancelled
+     */
+    public Throwable getReason() {
+        return this.reason;
+    }
+
+    /**
+     *
+     * Stops the current task if the token has been cancelled
+     *
+     * @throws CancellationException If the token has been cancelled
+     */
+    public void throwIfCancelled() {
+        Throwable reason = this.reason;
+
+        if (reason == null) {
+            return;
+        }
+
+        if (reason instanceof CancellationException) {
+            throw (CancellationException) reason;
+        }
+
+        CancellationException exception = new CancellationException(reason.getMessage());
+        exception.initCause(reason);
+        throw exception;
+    }
+
+    /**
+     *
+     * Runs the callback when the token is cancelled, or straight away if it already has been
+     *
+     * @param callback The callback
+     */
+    public void onCancel(Runnable callback) {
+        this.callbacks.add(callback);
+
+        if (this.reason != null && this.callbacks.remove(callback)) {
+            this.runCallback(callback);
+        }
+    }
+
+    private void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while running cancellation callback", e));
+        }
+    }
+
+    /**
+     *
+     * Completes the future exceptionally when the token is cancelled. Stages depending on the future will then
+     * fail instead of waiting forever
+     *
+     * @param future The future
+     * @return The same future
+     * @param <T> The result type
+     */
+    public <T> CompletableFuture<T> bind(CompletableFuture<T> future) {
+        this.onCancel(() -> future.completeExceptionally(this.reason));
+        return future;
+    }
+}
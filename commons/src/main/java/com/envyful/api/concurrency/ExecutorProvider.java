@@ -0,0 +1,32 @@
+package com.envyful.api.concurrency;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ *
+ * Provides the {@link ExecutorService} that {@link UtilConcurrency} uses to run async tasks.
+ * <br>
+ * Set using {@link UtilConcurrency#setExecutorProvider(ExecutorProvider)} or by starting the server with the
+ * {@link ExecutorProviders#EXECUTOR_PROPERTY} system property. See {@link ExecutorProviders} for the built-in
+ * implementations.
+ *
+ */
+public interface ExecutorProvider {
+
+    /**
+     *
+     * Gets the name of the provider, used when logging which executor is in use
+     *
+     * @return The name
+     */
+    String getName();
+
+    /**
+     *
+     * Creates a new executor service. Called once each time the provider is set
+     *
+     * @return The new executor service
+     */
+    ExecutorService create();
+
+}
@@ -0,0 +1,157 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Static factory for the built-in {@link ExecutorProvider} implementations.
+ * <br>
+ * - {@link ExecutorProviders#bounded(int)} a fixed pool of platform threads (the default)
+ * <br>
+ * - {@link ExecutorProviders#workStealing(int)} a {@link ForkJoinPool} in async mode
+ * <br>
+ * - {@link ExecutorProviders#virtual()} a virtual thread per task (Java 21+). Blocking I/O such as JDBC calls
+ * no longer holds a platform thread, so slow databases stop starving other async tasks
+ *
+ */
+public class ExecutorProviders {
+
+    /**
+     * System property used to choose the executor on startup. Accepts bounded, work_stealing or virtual
+     */
+    public static final String EXECUTOR_PROPERTY = "envyapi.concurrency.executor";
+
+    /**
+     * System property used to set the thread count of the bounded and work stealing executors
+     */
+    public static final String THREADS_PROPERTY = "envyapi.concurrency.threads";
+
+    public static final int DEFAULT_THREADS = 10;
+
+    private static final String THREAD_NAME_FORMAT = "envyware_concurrency_%d";
+
+    /**
+     *
+     * A fixed size pool of platform threads
+     *
+     * @param threads The number of threads
+     * @return The provider
+     */
+    public static ExecutorProvider bounded(int threads) {
+        return new ExecutorProvider() {
+            @Override
+            public String getName() {
+                return "bounded(" + threads + ")";
+            }
+
+            @Override
+            public ExecutorService create() {
+                return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
+                                .setDaemon(true)
+                                .setNameFormat(THREAD_NAME_FORMAT)
+                                .setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandler(UtilLogger.getLogger()))
+                                .build());
+            }
+        };
+    }
+
+    /**
+     *
+     * A work stealing {@link ForkJoinPool} running in async (FIFO) mode
+     *
+     * @param parallelism The target number of threads
+     * @return The provider
+     */
+    public static ExecutorProvider workStealing(int parallelism) {
+        return new ExecutorProvider() {
+            @Override
+            public String getName() {
+                return "work_stealing(" + parallelism + ")";
+            }
+
+            @Override
+            public ExecutorService create() {
+                return new ForkJoinPool(parallelism, pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("envyware_concurrency_ws_" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new DefaultUncaughtExceptionHandler(UtilLogger.getLogger()), true);
+            }
+        };
+    }
+
+    /**
+     *
+     * Creates a new virtual thread for every task. Requires Java 21 at runtime, if virtual threads are not available
+     * this falls back to {@link ExecutorProviders#bounded(int)}
+     *
+     * @return The provider
+     */
+    public static ExecutorProvider virtual() {
+        return new ExecutorProvider() {
+            @Override
+            public String getName() {
+                return "virtual";
+            }
+
+            @Override
+            public ExecutorService create() {
+                try {
+                    Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                    return (ExecutorService) method.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    UtilLogger.logger().ifPresent(logger -> logger.warn(
+                            "Virtual threads are not supported by this Java version, falling back to a bounded executor"));
+                    return bounded(DEFAULT_THREADS).create();
+                }
+            }
+        };
+    }
+
+    /**
+     *
+     * Gets the provider for the given name (bounded, work_stealing or virtual)
+     *
+     * @param name The name of the provider
+     * @param threads The number of threads for bounded or work stealing providers
+     * @return The provider
+     */
+    public static ExecutorProvider fromName(String name, int threads) {
+        if (name == null) {
+            return bounded(threads);
+        }
+
+        switch (name.toLowerCase()) {
+            case "work_stealing":
+            case "workstealing":
+                return workStealing(threads);
+            case "virtual":
+                return virtual();
+            case "bounded":
+            default:
+                return bounded(threads);
+        }
+    }
+
+    /**
+     *
+     * Gets the provider configured through the {@link ExecutorProviders#EXECUTOR_PROPERTY} and
+     * {@link ExecutorProviders#THREADS_PROPERTY} system properties
+     *
+     * @return The configured provider
+     */
+    public static ExecutorProvider fromSystemProperties() {
+        return fromName(System.getProperty(EXECUTOR_PROPERTY), Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS));
+    }
+}
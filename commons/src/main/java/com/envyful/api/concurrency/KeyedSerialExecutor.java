@@ -0,0 +1,126 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ *
+ * Runs tasks on a shared executor such that tasks submitted with the same key run one at a time in the order they
+ * were submitted, while tasks with different keys run in parallel.
+ * <br>
+ * Only the most recent task for each key is stored, each new task is chained onto it. Once a key has no more
+ * tasks waiting it is removed, so idle keys cost nothing. A failed task does not stop the tasks queued after it.
+ * <br>
+ * Typically used with a player's UUID so that a save on logout always finishes before the load on the next login
+ *
+ * @param <K> The key type
+ */
+public class KeyedSerialExecutor<K> {
+
+    private final Map<K, CompletableFuture<?>> tails = Maps.newConcurrentMap();
+    private final Executor executor;
+
+    /**
+     *
+     * Creates the executor running tasks on {@link UtilConcurrency#getExecutor()}, recorded under the given name
+     *
+     * @param name The name used for {@link UtilConcurrency#METRICS}
+     */
+    public KeyedSerialExecutor(String name) {
+        this(UtilConcurrency.namedExecutor(name));
+    }
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     *
+     * Runs the task after all previously submitted tasks for the key have completed
+     *
+     * @param key The key
+     * @param task The task
+     * @return The future completed when the task is done
+     */
+    public CompletableFuture<Void> execute(K key, Runnable task) {
+        return this.submit(key, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     *
+     * Runs the supplier after all previously submitted tasks for the key have completed
+     *
+     * @param key The key
+     * @param task The supplier
+     * @return The future completed with the result of the supplier
+     * @param <T> The result type
+     */
+    public <T> CompletableFuture<T> submit(K key, Supplier<T> task) {
+        return this.chain(key, previous -> previous.thenApplyAsync(unused -> task.get(), this.executor));
+    }
+
+    /**
+     *
+     * Starts the asynchronous operation after all previously submitted tasks for the key have completed. Tasks
+     * submitted afterwards for the same key will wait until the returned stage completes, without blocking a thread
+     *
+     * @param key The key
+     * @param task Starts the operation
+     * @return The future completed with the result of the operation
+     * @param <T> The result type
+     */
+    public <T> CompletableFuture<T> compose(K key, Supplier<? extends CompletionStage<T>> task) {
+        return this.chain(key, previous -> previous.thenComposeAsync(unused -> task.get(), this.executor));
+    }
+
+    /**
+     *
+     * Gets a future that completes once every task currently submitted for the key has completed
+     *
+     * @param key The key
+     * @return The future
+     */
+    public CompletableFuture<Void> awaitKey(K key) {
+        CompletableFuture<?> tail = this.tails.get(key);
+
+        if (tail == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return tail.handle((result, throwable) -> null);
+    }
+
+    /**
+     *
+     * Gets the number of keys that currently have tasks running or waiting
+     *
+     * @return The number of keys
+     */
+    public int getActiveKeys() {
+        return this.tails.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> chain(K key, TaskChainer<T> chainer) {
+        CompletableFuture<T> next = (CompletableFuture<T>) this.tails.compute(key, (k, previous) ->
+                chainer.chain(previous == null ?
+                        CompletableFuture.completedFuture(null) : previous.handle((result, throwable) -> null)));
+
+        next.whenComplete((result, throwable) -> this.tails.remove(key, next));
+        return next;
+    }
+
+    private interface TaskChainer<T> {
+
+        CompletableFuture<T> chain(CompletableFuture<Void> previous);
+
+    }
+}
@@ -0,0 +1,32 @@
+package com.envyful.api.concurrency;
+
+/**
+ *
+ * Controls what an {@link AsyncTaskBuilder} repeating task does when a run takes longer than its interval
+ *
+ */
+public enum OverlapPolicy {
+
+    /**
+     * Runs at a fixed rate on the scheduler thread. Late runs are executed back to back until the task catches up
+     */
+    FIXED_RATE,
+
+    /**
+     * Runs at a fixed rate on the async executor, skipping any run that is due while the previous run is still
+     * executing
+     */
+    SKIP_IF_RUNNING,
+
+    /**
+     * Waits for the interval after each run has finished before starting the next run
+     */
+    FIXED_DELAY,
+
+    /**
+     * Runs at a fixed rate on the async executor. Any runs missed while the previous run was executing are
+     * merged into a single run that starts as soon as the previous one finishes
+     */
+    COALESCE,
+
+}
@@ -0,0 +1,149 @@
+package com.envyful.api.concurrency;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ *
+ * Fork/join tasks behind the UtilConcurrency parallel methods. Each task splits its range of the list in half until
+ * the range is no larger than the chunk size, then processes the chunk on the current worker
+ *
+ */
+final class ParallelOperations {
+
+    private ParallelOperations() {
+        throw new UnsupportedOperationException("Static utility class");
+    }
+
+    /**
+     *
+     * Picks a chunk size giving each worker roughly four chunks so uneven work can be stolen by idle workers
+     *
+     * @param size The number of items
+     * @param pool The pool the work will run on
+     * @return The chunk size
+     */
+    static int defaultChunkSize(int size, ForkJoinPool pool) {
+        return Math.max(1, size / (pool.getParallelism() * 4));
+    }
+
+    static final class MapTask<T, R> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Object[] results;
+        private final Function<? super T, ? extends R> mapper;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        MapTask(List<T> items, Object[] results, Function<? super T, ? extends R> mapper, int chunkSize,
+                int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.mapper = mapper;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.chunkSize) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.results[i] = this.mapper.apply(this.items.get(i));
+                }
+
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+
+            invokeAll(new MapTask<>(this.items, this.results, this.mapper, this.chunkSize, this.from, middle),
+                    new MapTask<>(this.items, this.results, this.mapper, this.chunkSize, middle, this.to));
+        }
+    }
+
+    static final class ForEachTask<T> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Consumer<? super T> consumer;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        ForEachTask(List<T> items, Consumer<? super T> consumer, int chunkSize, int from, int to) {
+            this.items = items;
+            this.consumer = consumer;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.chunkSize) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.consumer.accept(this.items.get(i));
+                }
+
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+
+            invokeAll(new ForEachTask<>(this.items, this.consumer, this.chunkSize, this.from, middle),
+                    new ForEachTask<>(this.items, this.consumer, this.chunkSize, middle, this.to));
+        }
+    }
+
+    static final class ReduceTask<T, R> extends RecursiveTask<R> {
+
+        private final List<T> items;
+        private final R identity;
+        private final BiFunction<R, ? super T, R> accumulator;
+        private final BinaryOperator<R> combiner;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        ReduceTask(List<T> items, R identity, BiFunction<R, ? super T, R> accumulator, BinaryOperator<R> combiner,
+                   int chunkSize, int from, int to) {
+            this.items = items;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (this.to - this.from <= this.chunkSize) {
+                R result = this.identity;
+
+                for (int i = this.from; i < this.to; i++) {
+                    result = this.accumulator.apply(result, this.items.get(i));
+                }
+
+                return result;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ReduceTask<T, R> left = new ReduceTask<>(this.items, this.identity, this.accumulator, this.combiner,
+                    this.chunkSize, this.from, middle);
+            ReduceTask<T, R> right = new ReduceTask<>(this.items, this.identity, this.accumulator, this.combiner,
+                    this.chunkSize, middle, this.to);
+
+            left.fork();
+            R rightResult = right.compute();
+            return this.combiner.apply(left.join(), rightResult);
+        }
+    }
+}
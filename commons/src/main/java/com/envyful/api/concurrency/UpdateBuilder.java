@@ -5,16 +5,22 @@ import com.google.gson.internal.LinkedTreeMap;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 
 /**
  *
  * Basic non-platform specific implementation of a GitHub update checker.
- * This will ping the releases on the given repo every 10_000_000 milliseconds to determine if the current version
- * is the latest release.
+ * This will ping the releases on the given repo every 10_000_000 milliseconds (configurable using
+ * {@link UpdateBuilder#interval(long)}) to determine if the current version is the latest release.
+ * <br>
+ * All started builders are checked by the shared {@link UpdateChecker}. Requests are conditional (using the ETag
+ * of the last response) and failed requests are retried with an exponential backoff.
  *
  * If it's not the latest release admins will be notified upon joining.
  *
@@ -27,8 +33,14 @@ public class UpdateBuilder<T> {
     private String owner;
     private String repo;
     private String version;
+    private String apiUrl;
+    private long intervalMillis = 10_000_000L;
 
-    protected boolean upToDate = true;
+    protected volatile boolean upToDate = true;
+
+    private String etag = null;
+    private int failedAttempts = 0;
+    private long nextCheck = 0L;
 
     protected UpdateBuilder() {}
 
@@ -92,6 +104,35 @@ public class UpdateBuilder<T> {
         return this;
     }
 
+    /**
+     *
+     * Sets the time between each check for a new release
+     *
+     * @param intervalMillis The interval in milliseconds
+     * @return The builder
+     */
+    public UpdateBuilder<T> interval(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     *
+     * Overrides the URL the latest release is requested from.
+     * Defaults to https://api.github.com/repos/{owner}/{repo}/releases/latest
+     *
+     * @param apiUrl The URL
+     * @return The builder
+     */
+    public UpdateBuilder<T> apiUrl(String apiUrl) {
+        this.apiUrl = apiUrl;
+        return this;
+    }
+
+    public boolean isUpToDate() {
+        return this.upToDate;
+    }
+
     /**
      *
      * Attempts to send the update message to the player
@@ -110,36 +151,88 @@ public class UpdateBuilder<T> {
 
     /**
      *
-     * Starts the update checking thread and registeres required listeners
+     * Registers the builder with the shared {@link UpdateChecker} and registers required listeners
      *
      */
     public void start() {
-        UtilConcurrency.runAsync(() -> {
-            while (true) {
-                try {
-                    this.sendRequest();
-                } catch (IOException e) {
-                    UtilLogger.logger().ifPresent(logger -> logger.error("error sending request for latest version", e));
-                }
-            }
-        });
+        UpdateChecker.register(this);
     }
 
-    private void sendRequest() throws IOException {
-        URL url = new URL("https://api.github.com/repos/" + this.owner + "/" + this.repo + "/releases/latest");
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+    /**
+     *
+     * Stops checking for updates
+     *
+     */
+    public void stop() {
+        UpdateChecker.unregister(this);
+    }
 
-        connection.setRequestMethod("GET");
+    boolean isDue(long now) {
+        return now >= this.nextCheck;
+    }
 
-        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-            System.out.println("ERROR: " + connection.getResponseCode());
-            return;
+    /**
+     *
+     * Requests the latest release, scheduling the next check based on the result
+     *
+     */
+    void check() {
+        try {
+            this.sendRequest();
+            this.failedAttempts = 0;
+            this.nextCheck = System.currentTimeMillis() + this.intervalMillis;
+        } catch (IOException e) {
+            this.failedAttempts++;
+            this.nextCheck = System.currentTimeMillis() + this.getBackoffMillis();
+            UtilLogger.logger().ifPresent(logger -> logger.error("error sending request for latest version of " + this.name, e));
         }
+    }
+
+    private long getBackoffMillis() {
+        long backoff = TimeUnit.MINUTES.toMillis(1) << Math.min(this.failedAttempts - 1, 16);
 
-        LinkedTreeMap<String, Object> data = UtilGson.GSON.fromJson(new InputStreamReader(connection.getInputStream()), LinkedTreeMap.class);
+        return Math.min(backoff, this.intervalMillis);
+    }
 
-        if (!data.get("tag_name").equals(this.version)) {
-            this.upToDate = false;
+    private void sendRequest() throws IOException {
+        String url = this.apiUrl == null ?
+                "https://api.github.com/repos/" + this.owner + "/" + this.repo + "/releases/latest" : this.apiUrl;
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+
+        try {
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(10_000);
+            connection.setRequestProperty("Accept", "application/vnd.github+json");
+            connection.setRequestProperty("User-Agent", "EnvyAPI-UpdateChecker");
+
+            if (this.etag != null) {
+                connection.setRequestProperty("If-None-Match", this.etag);
+            }
+
+            int responseCode = connection.getResponseCode();
+
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return;
+            }
+
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response code " + responseCode + " from " + url);
+            }
+
+            LinkedTreeMap<String, Object> data;
+
+            try (Reader reader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+                data = UtilGson.GSON.fromJson(reader, LinkedTreeMap.class);
+            }
+
+            this.etag = connection.getHeaderField("ETag");
+
+            if (data != null && data.get("tag_name") != null) {
+                this.upToDate = data.get("tag_name").equals(this.version);
+            }
+        } finally {
+            connection.disconnect();
         }
     }
 }
@@ -0,0 +1,76 @@
+package com.envyful.api.concurrency;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *
+ * Single shared scheduled task that checks every registered {@link UpdateBuilder} once it is due.
+ * The task is only scheduled while at least one builder is registered, and the checks themselves are run on
+ * {@link UtilConcurrency#getExecutor()} so a slow request never blocks the scheduler
+ *
+ */
+public class UpdateChecker {
+
+    private static final long POLL_SECONDS = 30L;
+
+    private static final Set<UpdateBuilder<?>> BUILDERS = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean RUNNING = new AtomicBoolean(false);
+
+    private static ScheduledFuture<?> task = null;
+
+    private UpdateChecker() {
+        throw new UnsupportedOperationException("Static utility class");
+    }
+
+    /**
+     *
+     * Registers the builder to be checked, the first check happens straight away
+     *
+     * @param builder The builder
+     */
+    public static synchronized void register(UpdateBuilder<?> builder) {
+        BUILDERS.add(builder);
+
+        if (task == null) {
+            task = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.scheduleWithFixedDelay(
+                    UpdateChecker::poll, 0L, POLL_SECONDS, TimeUnit.SECONDS);
+        } else {
+            poll();
+        }
+    }
+
+    /**
+     *
+     * Stops checking the builder, cancelling the shared task if no builders remain
+     *
+     * @param builder The builder
+     */
+    public static synchronized void unregister(UpdateBuilder<?> builder) {
+        BUILDERS.remove(builder);
+
+        if (BUILDERS.isEmpty() && task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    private static void poll() {
+        if (!RUNNING.compareAndSet(false, true)) {
+            return;
+        }
+
+        UtilConcurrency.runAsync("update-checker", () -> {
+            long now = System.currentTimeMillis();
+
+            for (UpdateBuilder<?> builder : BUILDERS) {
+                if (builder.isDue(now)) {
+                    builder.check();
+                }
+            }
+        }).whenComplete((unused, throwable) -> RUNNING.set(false));
+    }
+}
@@ -1,8 +1,23 @@
 package com.envyful.api.concurrency;
 
+import com.envyful.api.concurrency.metrics.InstrumentedExecutor;
+import com.envyful.api.concurrency.metrics.TaskMetrics;
+import com.envyful.api.concurrency.metrics.TaskStats;
+import com.envyful.api.concurrency.timer.HashedWheelTimer;
+import com.envyful.api.concurrency.timer.ScheduledTask;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -19,6 +34,10 @@ import java.util.function.Supplier;
  */
 public class UtilConcurrency {
 
+    /**
+     * Used for timing delayed and repeating tasks. Async work is run on the executor from
+     * {@link UtilConcurrency#getExecutor()} instead
+     */
     public static final ScheduledExecutorService SCHEDULED_EXECUTOR_SERVICE =
             Executors.newScheduledThreadPool(10,
             new ThreadFactoryBuilder()
@@ -31,10 +50,79 @@ public class UtilConcurrency {
                     )
                     .build());
 
+    private static volatile ExecutorProvider executorProvider = ExecutorProviders.fromSystemProperties();
+    private static volatile ExecutorService executor = executorProvider.create();
+
+    /**
+     * Records the queue time, run time and failures of every async task by the name it was submitted with
+     */
+    public static final TaskMetrics METRICS = new TaskMetrics();
+
+    private static final InstrumentedExecutor INSTRUMENTED_EXECUTOR =
+            new InstrumentedExecutor(UtilConcurrency::getExecutor, METRICS);
+
+    /**
+     * Timer for {@link UtilConcurrency#scheduleLater(Runnable, long)} and
+     * {@link UtilConcurrency#scheduleLaterWhenTrue(Predicate, int, Runnable)}. Ticks every 10ms and checks pending
+     * conditions every 50ms
+     */
+    public static final HashedWheelTimer TIMER = new HashedWheelTimer("envyware_timer", 10L,
+            TimeUnit.MILLISECONDS, 512, 5, INSTRUMENTED_EXECUTOR.named("timer"));
+
+    /**
+     * Fork/join pool for CPU bound bulk work from the parallel methods. Kept separate from
+     * {@link UtilConcurrency#getExecutor()} so blocking I/O tasks can never starve it (or be starved by it)
+     */
+    public static final ForkJoinPool COMPUTE_POOL = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("envyware_compute_" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, new DefaultUncaughtExceptionHandler(UtilLogger.getLogger()), false);
+
+    private static final InstrumentedExecutor COMPUTE_EXECUTOR = new InstrumentedExecutor(() -> COMPUTE_POOL, METRICS);
+
+    /**
+     *
+     * Replaces the executor used for async tasks with a new one from the given provider.
+     * <br>
+     * The previous executor is shutdown once its queued tasks are complete
+     *
+     * @param provider The new provider
+     */
+    public static void setExecutorProvider(ExecutorProvider provider) {
+        if (provider == null) {
+            throw new IllegalArgumentException("Executor provider cannot be null");
+        }
+
+        ExecutorService previous = executor;
+
+        executorProvider = provider;
+        executor = provider.create();
+        previous.shutdown();
+
+        UtilLogger.logger().ifPresent(logger -> logger.info("Using {} executor for async tasks", provider.getName()));
+    }
+
+    public static ExecutorProvider getExecutorProvider() {
+        return executorProvider;
+    }
+
+    /**
+     *
+     * Gets the executor used for running async tasks
+     *
+     * @return The executor
+     */
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+
     /**
      *
-     * Takes the runnable and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} to be executed using one of the
-     * cached threads. (typically minimal [or no set] delay)
+     * Takes the runnable and passes it to the {@link UtilConcurrency#getExecutor()} to be executed.
+     * (typically minimal [or no set] delay)
      * <br>
      * Returning the completable future that will be completed when the t
      * ask is done
@@ -42,18 +130,32 @@ public class UtilConcurrency {
      * @param runnable The runnable to execute asynchronously
      */
     public static CompletableFuture<Void> runAsync(Runnable runnable) {
-        return CompletableFuture.runAsync(runnable,
-                        SCHEDULED_EXECUTOR_SERVICE)
-                .exceptionally(throwable -> {
-                    UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task", throwable));
-                    return null;
-                });
+        return runAsync(InstrumentedExecutor.DEFAULT_TASK_NAME, runnable);
     }
 
     /**
      *
-     * Takes the supplier and passes it to the {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE} to be executed using one of the
-     * cached threads. (typically minimal [or no set] delay)
+     * Takes the runnable and passes it to the {@link UtilConcurrency#getExecutor()} to be executed,
+     * recording its timings in {@link UtilConcurrency#METRICS} under the given name (i.e. "save:player")
+     *
+     * @param name The name of the task
+     * @param runnable The runnable to execute asynchronously
+     * @return The future completed when the task is done
+     */
+    public static CompletableFuture<Void> runAsync(String name, Runnable runnable) {
+        return INSTRUMENTED_EXECUTOR.supplyAsync(name, () -> {
+            runnable.run();
+            return (Void) null;
+        }).exceptionally(throwable -> {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task " + name, throwable));
+            return null;
+        });
+    }
+
+    /**
+     *
+     * Takes the supplier and passes it to the {@link UtilConcurrency#getExecutor()} to be executed.
+     * (typically minimal [or no set] delay)
      * <br>
      * Returning the completable future that will be completed when
      * the task is done
@@ -63,48 +165,310 @@ public class UtilConcurrency {
      * @param <T> The type to return
      */
     public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
-        return CompletableFuture.supplyAsync(supplier,
-                SCHEDULED_EXECUTOR_SERVICE).exceptionally(throwable -> {
-            UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task", throwable));
+        return supplyAsync(InstrumentedExecutor.DEFAULT_TASK_NAME, supplier);
+    }
+
+    /**
+     *
+     * Takes the supplier and passes it to the {@link UtilConcurrency#getExecutor()} to be executed,
+     * recording its timings in {@link UtilConcurrency#METRICS} under the given name
+     *
+     * @param name The name of the task
+     * @param supplier The supplier
+     * @return The future
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> supplier) {
+        return INSTRUMENTED_EXECUTOR.supplyAsync(name, supplier).exceptionally(throwable -> {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while executing async task " + name, throwable));
             return null;
         });
     }
 
+    /**
+     *
+     * Takes the supplier and passes it to the {@link UtilConcurrency#getExecutor()} to be executed, failing the
+     * future with a {@link TimeoutException} if it has not finished within the timeout
+     *
+     * @param supplier The supplier
+     * @param timeout The maximum time the task can take, including time spent queued
+     * @return The future
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Duration timeout) {
+        return supplyAsync(InstrumentedExecutor.DEFAULT_TASK_NAME, supplier, timeout);
+    }
+
+    /**
+     *
+     * Takes the supplier and passes it to the {@link UtilConcurrency#getExecutor()} to be executed, failing the
+     * future with a {@link TimeoutException} and interrupting the supplier if it has not finished within the timeout.
+     * <br>
+     * Unlike {@link UtilConcurrency#supplyAsync(String, Supplier)} errors are not replaced with null, so dependent
+     * stages fail as well
+     *
+     * @param name The name of the task
+     * @param supplier The supplier
+     * @param timeout The maximum time the task can take, including time spent queued
+     * @return The future
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> supplier, Duration timeout) {
+        CancellationToken token = CancellationToken.withTimeout(timeout);
+        CompletableFuture<T> future = supplyAsync(name, supplier, token);
+
+        future.whenComplete((result, throwable) -> token.cancelDeadline());
+        return future;
+    }
+
+    /**
+     *
+     * Takes the supplier and passes it to the {@link UtilConcurrency#getExecutor()} to be executed, abandoning it
+     * when the token is cancelled. Cancelling the returned future also cancels the token, so a token can be shared
+     * between every stage of an operation
+     *
+     * @param name The name of the task
+     * @param supplier The supplier
+     * @param token The token used to abandon the task
+     * @return The future
+     * @param <T> The type to return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> supplier, CancellationToken token) {
+        return INSTRUMENTED_EXECUTOR.supplyAsync(name, supplier, token);
+    }
+
+    /**
+     *
+     * Takes the runnable and passes it to the {@link UtilConcurrency#getExecutor()} to be executed, failing the
+     * future with a {@link TimeoutException} and interrupting the runnable if it has not finished within the timeout
+     *
+     * @param name The name of the task
+     * @param runnable The runnable to execute asynchronously
+     * @param timeout The maximum time the task can take, including time spent queued
+     * @return The future completed when the task is done
+     */
+    public static CompletableFuture<Void> runAsync(String name, Runnable runnable, Duration timeout) {
+        return supplyAsync(name, () -> {
+            runnable.run();
+            return null;
+        }, timeout);
+    }
+
+    /**
+     *
+     * Applies the mapper to every item on {@link UtilConcurrency#COMPUTE_POOL}, splitting the items into chunks
+     * that are processed in parallel. The results are in the same order as the items
+     *
+     * @param items The items
+     * @param mapper The function to apply to each item, must be safe to call from multiple threads
+     * @return The future completed with the mapped items
+     * @param <T> The item type
+     * @param <R> The result type
+     */
+    public static <T, R> CompletableFuture<List<R>> parallelMap(Collection<T> items, Function<? super T, ? extends R> mapper) {
+        return parallelMap(items, -1, mapper);
+    }
+
+    /**
+     *
+     * Applies the mapper to every item on {@link UtilConcurrency#COMPUTE_POOL}, splitting the items into chunks
+     * that are processed in parallel. The results are in the same order as the items
+     *
+     * @param items The items
+     * @param chunkSize The maximum number of items processed by a single task, or -1 to pick one automatically
+     * @param mapper The function to apply to each item, must be safe to call from multiple threads
+     * @return The future completed with the mapped items
+     * @param <T> The item type
+     * @param <R> The result type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> CompletableFuture<List<R>> parallelMap(Collection<T> items, int chunkSize,
+                                                                Function<? super T, ? extends R> mapper) {
+        List<T> list = Lists.newArrayList(items);
+        Object[] results = new Object[list.size()];
+
+        return COMPUTE_EXECUTOR.supplyAsync("parallel:map", () -> {
+            new ParallelOperations.MapTask<T, R>(list, results, mapper, getChunkSize(list, chunkSize), 0, list.size())
+                    .invoke();
+            return Collections.unmodifiableList((List<R>) Arrays.asList(results));
+        });
+    }
+
+    /**
+     *
+     * Passes every item to the consumer on {@link UtilConcurrency#COMPUTE_POOL}, splitting the items into chunks
+     * that are processed in parallel. No order is guaranteed between chunks
+     *
+     * @param items The items
+     * @param consumer The consumer, must be safe to call from multiple threads
+     * @return The future completed once every item has been processed
+     * @param <T> The item type
+     */
+    public static <T> CompletableFuture<Void> parallelForEach(Collection<T> items, Consumer<? super T> consumer) {
+        return parallelForEach(items, -1, consumer);
+    }
+
+    /**
+     *
+     * Passes every item to the consumer on {@link UtilConcurrency#COMPUTE_POOL}, splitting the items into chunks
+     * that are processed in parallel. No order is guaranteed between chunks
+     *
+     * @param items The items
+     * @param chunkSize The maximum number of items processed by a single task, or -1 to pick one automatically
+     * @param consumer The consumer, must be safe to call from multiple threads
+     * @return The future completed once every item has been processed
+     * @param <T> The item type
+     */
+    public static <T> CompletableFuture<Void> parallelForEach(Collection<T> items, int chunkSize,
+                                                             Consumer<? super T> consumer) {
+        List<T> list = Lists.newArrayList(items);
+
+        return COMPUTE_EXECUTOR.supplyAsync("parallel:for-each", () -> {
+            new ParallelOperations.ForEachTask<T>(list, consumer, getChunkSize(list, chunkSize), 0, list.size())
+                    .invoke();
+            return null;
+        });
+    }
+
+    /**
+     *
+     * Reduces the items on {@link UtilConcurrency#COMPUTE_POOL}. Each chunk is folded from the identity using the
+     * accumulator and the chunk results are merged, in order, using the combiner
+     *
+     * @param items The items
+     * @param identity The starting value for each chunk, must not be mutated
+     * @param accumulator Adds an item to a partial result
+     * @param combiner Merges two partial results
+     * @return The future completed with the reduced value
+     * @param <T> The item type
+     * @param <R> The result type
+     */
+    public static <T, R> CompletableFuture<R> parallelReduce(Collection<T> items, R identity,
+                                                             BiFunction<R, ? super T, R> accumulator,
+                                                             BinaryOperator<R> combiner) {
+        List<T> list = Lists.newArrayList(items);
+
+        return COMPUTE_EXECUTOR.supplyAsync("parallel:reduce", () ->
+                new ParallelOperations.ReduceTask<>(list, identity, accumulator, combiner,
+                        getChunkSize(list, -1), 0, list.size()).invoke());
+    }
+
+    private static int getChunkSize(List<?> items, int chunkSize) {
+        if (chunkSize > 0) {
+            return chunkSize;
+        }
+
+        return ParallelOperations.defaultChunkSize(items.size(), COMPUTE_POOL);
+    }
+
+    /**
+     *
+     * Gets an executor that runs tasks on {@link UtilConcurrency#getExecutor()} and records them under the
+     * given name. Useful for {@link CompletableFuture} methods that take an executor
+     *
+     * @param name The name of the tasks
+     * @return The executor
+     */
+    public static Executor namedExecutor(String name) {
+        return INSTRUMENTED_EXECUTOR.named(name);
+    }
+
+    /**
+     *
+     * Takes a snapshot of the stats for every task name, busiest first
+     *
+     * @return The snapshots
+     */
+    public static List<TaskStats.Snapshot> getMetricsSnapshot() {
+        return METRICS.snapshot();
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting in the executor's queue, or -1 if the executor type is unknown
+     *
+     * @return The queue size
+     */
+    public static long getQueuedTaskCount() {
+        ExecutorService current = executor;
+
+        if (current instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) current).getQueue().size();
+        }
+
+        if (current instanceof ForkJoinPool) {
+            return ((ForkJoinPool) current).getQueuedSubmissionCount() + ((ForkJoinPool) current).getQueuedTaskCount();
+        }
+
+        return -1;
+    }
+
+    /**
+     *
+     * Periodically logs the task metrics using {@link UtilLogger}
+     *
+     * @param interval The time between each log
+     * @param timeUnit The unit of the interval
+     * @return The future for the repeating task, cancel it to stop logging
+     */
+    public static ScheduledFuture<?> startMetricsLogging(long interval, TimeUnit timeUnit) {
+        return SCHEDULED_EXECUTOR_SERVICE.scheduleAtFixedRate(() -> UtilLogger.logger().ifPresent(logger -> {
+            logger.info("Async executor {} has {} queued tasks", executorProvider.getName(), getQueuedTaskCount());
+            METRICS.dump(logger);
+        }), interval, interval, timeUnit);
+    }
+
     /**
      *
      * Takes the runnable and passes it to the
-     * {@link UtilConcurrency#SCHEDULED_EXECUTOR_SERVICE}
-     * to be executed later using one of the
-     * cached threads
+     * {@link UtilConcurrency#getExecutor()}
+     * to be executed after the delay
      *
      * @param runnable the runnable to execute asynchronously
-     * @param delay The delay before running it
+     * @param delay The delay, in milliseconds, before running it
      */
     public static void runLater(Runnable runnable, long delay) {
-        SCHEDULED_EXECUTOR_SERVICE.schedule(
-                runnable, delay, TimeUnit.MILLISECONDS);
+        scheduleLater(runnable, delay);
     }
 
     /**
      *
-     * Executes the runnable task the tick after the predicate returns true
+     * Same as {@link UtilConcurrency#runLater(Runnable, long)} but returns a handle for the task
+     *
+     * @param runnable the runnable to execute asynchronously
+     * @param delay The delay, in milliseconds, before running it
+     * @return The handle that can be used to cancel the task
+     */
+    public static ScheduledTask scheduleLater(Runnable runnable, long delay) {
+        return TIMER.schedule(runnable, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *
+     * Executes the runnable task on the first check after the predicate returns true.
+     * Pending predicates are all checked together every 50ms
      *
      * @param predicate The predicate to use
+     * @param delay The delay, in milliseconds, before the predicate is first checked
      * @param runnable The runnable to execute
      */
     public static void runLaterWhenTrue(
             Predicate<Runnable> predicate, int delay, Runnable runnable) {
-        runLater(() -> attemptRun(predicate, runnable), delay);
+        scheduleLaterWhenTrue(predicate, delay, runnable);
     }
 
-    private static void attemptRun(
-            Predicate<Runnable> predicate, Runnable runnable) {
-        if (!predicate.test(runnable)) {
-            runLater(() -> attemptRun(predicate, runnable), 50L);
-            return;
-        }
-
-        runnable.run();
+    /**
+     *
+     * Same as {@link UtilConcurrency#runLaterWhenTrue(Predicate, int, Runnable)} but returns a handle for the task
+     *
+     * @param predicate The predicate to use
+     * @param delay The delay, in milliseconds, before the predicate is first checked
+     * @param runnable The runnable to execute
+     * @return The handle that can be used to cancel the task
+     */
+    public static ScheduledTask scheduleLaterWhenTrue(
+            Predicate<Runnable> predicate, int delay, Runnable runnable) {
+        return TIMER.scheduleWhenTrue(predicate, delay, TimeUnit.MILLISECONDS, runnable);
     }
 
     public static void runRepeatingTask(
@@ -0,0 +1,227 @@
+package com.envyful.api.concurrency.metrics;
+
+import com.envyful.api.concurrency.CancellationToken;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ *
+ * Wraps an {@link Executor} recording the queue time, run time, failures and rejections of every task into
+ * {@link TaskMetrics} under the name the task was submitted with
+ *
+ */
+public class InstrumentedExecutor implements Executor {
+
+    public static final String DEFAULT_TASK_NAME = "unnamed";
+
+    private final Supplier<Executor> delegate;
+    private final TaskMetrics metrics;
+
+    /**
+     *
+     * Creates the wrapper. The delegate is looked up for every task so the underlying executor can be swapped
+     *
+     * @param delegate Supplies the executor to run the tasks on
+     * @param metrics Where to record the task stats
+     */
+    public InstrumentedExecutor(Supplier<Executor> delegate, TaskMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    public TaskMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.execute(DEFAULT_TASK_NAME, command);
+    }
+
+    /**
+     *
+     * Runs the task on the delegate executor, recording it under the given name
+     *
+     * @param name The name of the task
+     * @param command The task
+     */
+    public void execute(String name, Runnable command) {
+        this.dispatch(name, () -> {
+            command.run();
+            return true;
+        });
+    }
+
+    /**
+     *
+     * Runs the supplier on the delegate executor, recording it under the given name.
+     * <br>
+     * Unlike {@link CompletableFuture#supplyAsync(Supplier, Executor)} exceptions thrown by the supplier are
+     * recorded as failures for the task name
+     *
+     * @param name The name of the task
+     * @param supplier The supplier
+     * @return The future completed with the result of the supplier
+     * @param <T> The result type
+     */
+    public <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        try {
+            this.dispatch(name, () -> {
+                if (future.isDone()) {
+                    return true;
+                }
+
+                try {
+                    future.complete(supplier.get());
+                    return true;
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                    return false;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    /**
+     *
+     * Runs the supplier on the delegate executor, recording it under the given name.
+     * <br>
+     * When the token is cancelled the returned future fails straight away with the token's reason and the thread
+     * running the supplier, if it has started, is interrupted. Cancelling the returned future cancels the token.
+     * Tokens cancelled by a {@link TimeoutException} are recorded as timed out
+     *
+     * @param name The name of the task
+     * @param supplier The supplier
+     * @param token The token used to abandon the task
+     * @return The future completed with the result of the supplier
+     * @param <T> The result type
+     */
+    public <T> CompletableFuture<T> supplyAsync(String name, Supplier<T> supplier, CancellationToken token) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        InterruptibleRun run = new InterruptibleRun();
+
+        token.onCancel(() -> {
+            if (!future.completeExceptionally(token.getReason())) {
+                return;
+            }
+
+            if (token.getReason() instanceof TimeoutException) {
+                this.metrics.getStats(name).recordTimedOut();
+            }
+
+            run.interrupt();
+        });
+
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                token.cancel();
+            }
+        });
+
+        try {
+            this.dispatch(name, () -> {
+                if (future.isDone() || !run.start()) {
+                    return true;
+                }
+
+                try {
+                    future.complete(supplier.get());
+                    return true;
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                    return false;
+                } finally {
+                    run.finish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    private void dispatch(String name, BooleanSupplier task) {
+        TaskStats stats = this.metrics.getStats(name);
+        long submittedAt = System.nanoTime();
+
+        stats.recordSubmitted();
+
+        try {
+            this.delegate.get().execute(() -> {
+                long startedAt = System.nanoTime();
+                boolean success = false;
+
+                stats.recordStarted(startedAt - submittedAt);
+
+                try {
+                    success = task.getAsBoolean();
+                } finally {
+                    stats.recordFinished(System.nanoTime() - startedAt, success);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stats.recordRejected();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * Gets a view of this executor that records all tasks under the given name
+     *
+     * @param name The name of the tasks
+     * @return The named executor
+     */
+    public Executor named(String name) {
+        return command -> this.execute(name, command);
+    }
+
+    /**
+     *
+     * Tracks the thread running a task so it can be interrupted, without the interrupt leaking into the next task
+     * that thread runs
+     *
+     */
+    private static final class InterruptibleRun {
+
+        private Thread runner = null;
+        private boolean interrupted = false;
+
+        synchronized boolean start() {
+            if (this.interrupted) {
+                return false;
+            }
+
+            this.runner = Thread.currentThread();
+            return true;
+        }
+
+        synchronized void interrupt() {
+            this.interrupted = true;
+
+            if (this.runner != null) {
+                this.runner.interrupt();
+            }
+        }
+
+        synchronized void finish() {
+            this.runner = null;
+
+            if (this.interrupted) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.envyful.api.concurrency.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * A lock free histogram of durations using power of two microsecond buckets.
+ * <br>
+ * Recording is cheap enough to be done for every task, at the cost of percentiles only being accurate to the
+ * upper bound of the bucket they fall in (i.e. within a factor of two)
+ *
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     *
+     * Records a single duration
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        this.counts.incrementAndGet(bucketFor(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     *
+     * Clears all recorded values
+     *
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+
+        this.count.reset();
+        this.totalNanos.reset();
+        this.maxNanos.reset();
+    }
+
+    /**
+     *
+     * Takes a copy of the currently recorded values
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.counts.get(i);
+        }
+
+        return new Snapshot(counts, this.count.sum(), this.totalNanos.sum(), this.maxNanos.get());
+    }
+
+    private static int bucketFor(long micros) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+    /**
+     *
+     * An immutable copy of the histogram values
+     *
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        public double getMeanMillis() {
+            if (this.count == 0) {
+                return 0;
+            }
+
+            return (this.totalNanos / (double) this.count) / 1_000_000.0;
+        }
+
+        public double getMaxMillis() {
+            return this.maxNanos / 1_000_000.0;
+        }
+
+        /**
+         *
+         * Gets the approximate value, in milliseconds, at the given percentile
+         *
+         * @param percentile The percentile between 0 and 100
+         * @return The value in milliseconds
+         */
+        public double getPercentileMillis(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil((percentile / 100.0) * this.count);
+            long seen = 0;
+
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+
+                if (seen >= target) {
+                    return Math.min(upperBoundMicros(i) / 1000.0, this.getMaxMillis());
+                }
+            }
+
+            return this.getMaxMillis();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.envyful.api.concurrency.metrics;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * Registry of {@link TaskStats} grouped by the name the tasks were submitted under
+ *
+ */
+public class TaskMetrics {
+
+    private final Map<String, TaskStats> stats = Maps.newConcurrentMap();
+
+    /**
+     *
+     * Gets, or creates, the stats for the given task name
+     *
+     * @param name The task name
+     * @return The stats
+     */
+    public TaskStats getStats(String name) {
+        return this.stats.computeIfAbsent(name, TaskStats::new);
+    }
+
+    /**
+     *
+     * Takes a snapshot of every task name, ordered by total run time (the busiest tasks first)
+     *
+     * @return The snapshots
+     */
+    public List<TaskStats.Snapshot> snapshot() {
+        List<TaskStats.Snapshot> snapshots = Lists.newArrayList();
+
+        for (TaskStats value : this.stats.values()) {
+            snapshots.add(value.snapshot());
+        }
+
+        snapshots.sort(Comparator.comparingDouble(
+                (TaskStats.Snapshot snapshot) -> snapshot.getRunTime().getMeanMillis() * snapshot.getRunTime().getCount())
+                .reversed());
+        return snapshots;
+    }
+
+    /**
+     *
+     * Removes all recorded stats
+     *
+     */
+    public void reset() {
+        this.stats.clear();
+    }
+
+    /**
+     *
+     * Logs the current snapshot of all tasks
+     *
+     * @param logger The logger to write to
+     */
+    public void dump(Logger logger) {
+        List<TaskStats.Snapshot> snapshots = this.snapshot();
+
+        logger.info("Async task metrics ({} task names)", snapshots.size());
+
+        for (TaskStats.Snapshot snapshot : snapshots) {
+            logger.info(snapshot.toString());
+        }
+    }
+}
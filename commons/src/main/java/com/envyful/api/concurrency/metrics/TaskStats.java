@@ -0,0 +1,175 @@
+package com.envyful.api.concurrency.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * The counters and timings recorded for every task submitted under a single name
+ *
+ */
+public class TaskStats {
+
+    private final String name;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+
+    public TaskStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public void recordSubmitted() {
+        this.submitted.increment();
+    }
+
+    public void recordRejected() {
+        this.rejected.increment();
+    }
+
+    public void recordTimedOut() {
+        this.timedOut.increment();
+    }
+
+    /**
+     *
+     * Records that the task has been taken from the queue and started executing
+     *
+     * @param queueNanos The time between submission and the task starting
+     */
+    public void recordStarted(long queueNanos) {
+        this.started.increment();
+        this.queueTime.record(queueNanos);
+    }
+
+    /**
+     *
+     * Records that the task has finished executing
+     *
+     * @param runNanos The time taken to run the task
+     * @param success If the task completed without throwing an exception
+     */
+    public void recordFinished(long runNanos, boolean success) {
+        if (success) {
+            this.completed.increment();
+        } else {
+            this.failed.increment();
+        }
+
+        this.runTime.record(runNanos);
+    }
+
+    /**
+     *
+     * Takes a copy of the current values
+     *
+     * @return The snapshot
+     */
+    public Snapshot snapshot() {
+        long submitted = this.submitted.sum();
+        long rejected = this.rejected.sum();
+        long started = this.started.sum();
+
+        return new Snapshot(this.name, submitted, started, this.completed.sum(), this.failed.sum(), rejected,
+                this.timedOut.sum(), Math.max(0, submitted - rejected - started),
+                this.queueTime.snapshot(), this.runTime.snapshot());
+    }
+
+    /**
+     *
+     * An immutable copy of the task's stats
+     *
+     */
+    public static class Snapshot {
+
+        private final String name;
+        private final long submitted;
+        private final long started;
+        private final long completed;
+        private final long failed;
+        private final long rejected;
+        private final long timedOut;
+        private final long backlog;
+        private final LatencyHistogram.Snapshot queueTime;
+        private final LatencyHistogram.Snapshot runTime;
+
+        private Snapshot(String name, long submitted, long started, long completed, long failed, long rejected,
+                         long timedOut, long backlog, LatencyHistogram.Snapshot queueTime,
+                         LatencyHistogram.Snapshot runTime) {
+            this.name = name;
+            this.submitted = submitted;
+            this.started = started;
+            this.completed = completed;
+            this.failed = failed;
+            this.rejected = rejected;
+            this.timedOut = timedOut;
+            this.backlog = backlog;
+            this.queueTime = queueTime;
+            this.runTime = runTime;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getSubmitted() {
+            return this.submitted;
+        }
+
+        public long getStarted() {
+            return this.started;
+        }
+
+        public long getCompleted() {
+            return this.completed;
+        }
+
+        public long getFailed() {
+            return this.failed;
+        }
+
+        public long getRejected() {
+            return this.rejected;
+        }
+
+        public long getTimedOut() {
+            return this.timedOut;
+        }
+
+        /**
+         *
+         * Gets the number of tasks that have been submitted but not yet started
+         *
+         * @return The backlog
+         */
+        public long getBacklog() {
+            return this.backlog;
+        }
+
+        public LatencyHistogram.Snapshot getQueueTime() {
+            return this.queueTime;
+        }
+
+        public LatencyHistogram.Snapshot getRunTime() {
+            return this.runTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: submitted=%d completed=%d failed=%d rejected=%d timed_out=%d backlog=%d " +
+                            "wait(p50=%.2fms p99=%.2fms max=%.2fms) run(p50=%.2fms p99=%.2fms max=%.2fms)",
+                    this.name, this.submitted, this.completed, this.failed, this.rejected, this.timedOut,
+                    this.backlog, this.queueTime.getPercentileMillis(50), this.queueTime.getPercentileMillis(99),
+                    this.queueTime.getMaxMillis(), this.runTime.getPercentileMillis(50),
+                    this.runTime.getPercentileMillis(99), this.runTime.getMaxMillis());
+        }
+    }
+}
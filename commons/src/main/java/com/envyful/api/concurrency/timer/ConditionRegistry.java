@@ -0,0 +1,205 @@
+package com.envyful.api.concurrency.timer;
+
+import com.envyful.api.concurrency.UtilLogger;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ *
+ * Stores tasks that should run once their predicate passes. Rather than every task re-scheduling itself to check
+ * again later, all waiting predicates are tested together in a single {@link ConditionRegistry#sweep(Executor)}.
+ * <br>
+ * Tasks can be registered from any thread. Concurrent calls to {@link ConditionRegistry#sweep(Executor)} are
+ * ignored while a sweep is already in progress.
+ *
+ */
+public class ConditionRegistry {
+
+    private final Queue<ConditionalTask> addedTasks = new ConcurrentLinkedQueue<>();
+    private final List<ConditionalTask> activeTasks = Lists.newArrayList();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     *
+     * Registers the runnable to be dispatched on the first sweep where the predicate returns true
+     *
+     * @param predicate The condition to check
+     * @param runnable The task to run
+     * @return The handle for the task
+     */
+    public ConditionalTask register(Predicate<Runnable> predicate, Runnable runnable) {
+        ConditionalTask task = new ConditionalTask(this, predicate, runnable);
+
+        this.add(task);
+        return task;
+    }
+
+    /**
+     *
+     * Creates the task without registering it, {@link ConditionalTask#register()} should be called to begin
+     * checking the condition
+     *
+     * @param predicate The condition to check
+     * @param runnable The task to run
+     * @return The handle for the task
+     */
+    public ConditionalTask create(Predicate<Runnable> predicate, Runnable runnable) {
+        return new ConditionalTask(this, predicate, runnable);
+    }
+
+    private void add(ConditionalTask task) {
+        this.size.incrementAndGet();
+        this.addedTasks.add(task);
+    }
+
+    /**
+     *
+     * Gets the number of tasks still waiting on their condition
+     *
+     * @return The number of tasks
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    public boolean isEmpty() {
+        return this.size.get() == 0;
+    }
+
+    /**
+     *
+     * Tests every waiting predicate once, passing the tasks whose predicate returned true to the dispatcher
+     *
+     * @param dispatcher The executor to run the passing tasks
+     */
+    public void sweep(Executor dispatcher) {
+        if (!this.sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            ConditionalTask added;
+
+            while ((added = this.addedTasks.poll()) != null) {
+                this.activeTasks.add(added);
+            }
+
+            int kept = 0;
+
+            for (int i = 0; i < this.activeTasks.size(); i++) {
+                ConditionalTask task = this.activeTasks.get(i);
+
+                if (task.isDone() || this.test(task)) {
+                    if (task.complete()) {
+                        dispatcher.execute(task.runnable);
+                    }
+
+                    continue;
+                }
+
+                this.activeTasks.set(kept++, task);
+            }
+
+            this.activeTasks.subList(kept, this.activeTasks.size()).clear();
+        } finally {
+            this.sweeping.set(false);
+        }
+    }
+
+    private boolean test(ConditionalTask task) {
+        try {
+            return task.predicate.test(task.runnable);
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error when testing task condition, removing task", e));
+            task.cancel();
+            return false;
+        }
+    }
+
+    /**
+     *
+     * A task waiting for its condition to pass
+     *
+     */
+    public static final class ConditionalTask implements ScheduledTask {
+
+        private static final int STATE_WAITING = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_COMPLETED = 2;
+
+        private final ConditionRegistry registry;
+        private final Predicate<Runnable> predicate;
+        private final Runnable runnable;
+        private final AtomicInteger state = new AtomicInteger(STATE_WAITING);
+
+        private volatile ScheduledTask delay;
+
+        private ConditionalTask(ConditionRegistry registry, Predicate<Runnable> predicate, Runnable runnable) {
+            this.registry = registry;
+            this.predicate = predicate;
+            this.runnable = runnable;
+        }
+
+        /**
+         *
+         * Sets the task that will register this task once a delay has passed, so that cancelling this task
+         * also cancels the delay
+         *
+         * @param delay The delay task
+         */
+        public void setDelay(ScheduledTask delay) {
+            this.delay = delay;
+        }
+
+        /**
+         *
+         * Adds the task to the registry so that its condition is checked in the next sweep
+         *
+         */
+        public void register() {
+            if (this.isDone()) {
+                return;
+            }
+
+            this.registry.add(this);
+        }
+
+        private boolean complete() {
+            this.registry.size.decrementAndGet();
+            return this.state.compareAndSet(STATE_WAITING, STATE_COMPLETED);
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!this.state.compareAndSet(STATE_WAITING, STATE_CANCELLED)) {
+                return false;
+            }
+
+            ScheduledTask delay = this.delay;
+
+            if (delay != null) {
+                delay.cancel();
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.state.get() != STATE_WAITING;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.envyful.api.concurrency.timer;
+
+import com.envyful.api.concurrency.UtilLogger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ *
+ * A timer backed by a {@link TimingWheel} that is moved forward by a single daemon thread every tick duration.
+ * Expired tasks are never run on the timer thread, they are passed to the dispatcher executor.
+ * <br>
+ * Conditional tasks ({@link HashedWheelTimer#scheduleWhenTrue(Predicate, long, TimeUnit, Runnable)}) are stored
+ * in a {@link ConditionRegistry} and all checked together every condition interval.
+ *
+ */
+public class HashedWheelTimer {
+
+    private final TimingWheel wheel;
+    private final ConditionRegistry conditions = new ConditionRegistry();
+    private final long tickNanos;
+    private final int conditionIntervalTicks;
+    private final Executor dispatcher;
+    private final Thread workerThread;
+    private final AtomicBoolean sweepQueued = new AtomicBoolean(false);
+
+    private volatile boolean running = true;
+
+    /**
+     *
+     * Creates and starts the timer
+     *
+     * @param name The name of the timer thread
+     * @param tickDuration The duration of a single tick
+     * @param unit The unit of the tick duration
+     * @param buckets The number of buckets in the wheel
+     * @param conditionIntervalTicks The number of ticks between each check of the conditional tasks
+     * @param dispatcher The executor expired tasks are run on
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int buckets,
+                            int conditionIntervalTicks, Executor dispatcher) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be greater than 0");
+        }
+
+        this.wheel = new TimingWheel(buckets);
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.conditionIntervalTicks = Math.max(1, conditionIntervalTicks);
+        this.dispatcher = dispatcher;
+        this.workerThread = new Thread(this::run, name);
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     *
+     * Schedules the task to run after the delay. The delay is rounded up to the next tick
+     *
+     * @param task The task
+     * @param delay The delay
+     * @param unit The unit of the delay
+     * @return The handle for the task
+     */
+    public ScheduledTask schedule(Runnable task, long delay, TimeUnit unit) {
+        return this.wheel.schedule(task, this.toTicks(delay, unit));
+    }
+
+    /**
+     *
+     * Schedules the task to run on the first condition check, after the delay, where the predicate passes
+     *
+     * @param predicate The condition
+     * @param delay The delay before the condition is first checked
+     * @param unit The unit of the delay
+     * @param task The task
+     * @return The handle for the task
+     */
+    public ScheduledTask scheduleWhenTrue(Predicate<Runnable> predicate, long delay, TimeUnit unit, Runnable task) {
+        ConditionRegistry.ConditionalTask conditionalTask = this.conditions.create(predicate, task);
+
+        if (delay <= 0) {
+            conditionalTask.register();
+        } else {
+            conditionalTask.setDelay(this.wheel.schedule(conditionalTask::register, this.toTicks(delay, unit)));
+        }
+
+        return conditionalTask;
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting in the wheel
+     *
+     * @return The number of pending tasks
+     */
+    public int getPendingTasks() {
+        return this.wheel.size();
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting on their condition
+     *
+     * @return The number of conditional tasks
+     */
+    public int getPendingConditions() {
+        return this.conditions.size();
+    }
+
+    /**
+     *
+     * Stops the timer thread. Pending tasks will not be run
+     *
+     */
+    public void stop() {
+        this.running = false;
+        LockSupport.unpark(this.workerThread);
+    }
+
+    private long toTicks(long delay, TimeUnit unit) {
+        long nanos = unit.toNanos(Math.max(0, delay));
+
+        return (nanos + this.tickNanos - 1) / this.tickNanos;
+    }
+
+    private void run() {
+        long startTime = System.nanoTime();
+        long tick = 0;
+
+        while (this.running) {
+            long deadline = startTime + (tick + 1) * this.tickNanos;
+            long sleepNanos;
+
+            while (this.running && (sleepNanos = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+
+            try {
+                this.wheel.advance(this.dispatcher);
+
+                if (tick % this.conditionIntervalTicks == 0) {
+                    this.queueConditionSweep();
+                }
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error when advancing timer", e));
+            }
+
+            ++tick;
+        }
+    }
+
+    private void queueConditionSweep() {
+        if (this.conditions.isEmpty() || !this.sweepQueued.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.dispatcher.execute(() -> {
+            try {
+                this.conditions.sweep(this.dispatcher);
+            } finally {
+                this.sweepQueued.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.envyful.api.concurrency.timer;
+
+/**
+ *
+ * A handle to a task waiting in a {@link TimingWheel} or {@link ConditionRegistry}
+ *
+ */
+public interface ScheduledTask {
+
+    /**
+     *
+     * Cancels the task if it has not yet run
+     *
+     * @return true if the task was cancelled by this call
+     */
+    boolean cancel();
+
+    /**
+     *
+     * Checks if the task was cancelled before it could run
+     *
+     * @return true if cancelled
+     */
+    boolean isCancelled();
+
+    /**
+     *
+     * Checks if the task has either run or been cancelled
+     *
+     * @return true if the task will no longer run
+     */
+    boolean isDone();
+
+}
@@ -0,0 +1,269 @@
+package com.envyful.api.concurrency.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * A hashed timing wheel. Tasks are placed in the bucket for the tick they are due and the wheel is moved forward
+ * one tick at a time using {@link TimingWheel#advance(Executor)}, only visiting the tasks in the current bucket.
+ * <br>
+ * Scheduling and cancelling are O(1) and can be done from any thread. {@link TimingWheel#advance(Executor)} must
+ * only be called by a single thread (i.e. the timer thread, or the server thread for tick based wheels).
+ * <br>
+ * The wheel is unaware of what a tick is, see {@link HashedWheelTimer} for a wheel driven by wall clock time.
+ *
+ */
+public class TimingWheel {
+
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Queue<WheelTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTask> cancelledTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long currentTick = 0;
+
+    /**
+     *
+     * Creates a wheel with the given number of buckets, rounded up to the next power of two
+     *
+     * @param buckets The number of buckets
+     */
+    public TimingWheel(int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Bucket count must be greater than 0");
+        }
+
+        int normalized = Integer.highestOneBit(buckets - 1) << 1;
+
+        if (buckets == 1) {
+            normalized = 1;
+        }
+
+        this.buckets = new Bucket[normalized];
+        this.mask = normalized - 1;
+
+        for (int i = 0; i < normalized; i++) {
+            this.buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     *
+     * Schedules the task to be dispatched after the given number of ticks
+     *
+     * @param task The task to run
+     * @param delayTicks The number of ticks to wait
+     * @return The handle for the scheduled task
+     */
+    public WheelTask schedule(Runnable task, long delayTicks) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+
+        WheelTask wheelTask = new WheelTask(this, task, this.currentTick + Math.max(0, delayTicks));
+
+        this.size.incrementAndGet();
+        this.pendingTasks.add(wheelTask);
+        return wheelTask;
+    }
+
+    /**
+     *
+     * Gets the tick the wheel will process next
+     *
+     * @return The current tick
+     */
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting to be dispatched
+     *
+     * @return The number of pending tasks
+     */
+    public int size() {
+        return this.size.get();
+    }
+
+    /**
+     *
+     * Processes the current tick, passing every task that is now due to the dispatcher and then moves the wheel
+     * forward by one tick
+     *
+     * @param dispatcher The executor to pass expired tasks to
+     */
+    public void advance(Executor dispatcher) {
+        long tick = this.currentTick;
+
+        this.removeCancelledTasks();
+        this.transferPendingTasks(tick);
+        this.buckets[(int) (tick & this.mask)].expireTasks(tick, dispatcher);
+
+        this.currentTick = tick + 1;
+    }
+
+    private void removeCancelledTasks() {
+        WheelTask task;
+
+        while ((task = this.cancelledTasks.poll()) != null) {
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+            }
+        }
+    }
+
+    private void transferPendingTasks(long tick) {
+        WheelTask task;
+
+        while ((task = this.pendingTasks.poll()) != null) {
+            if (task.isCancelled()) {
+                continue;
+            }
+
+            long deadline = Math.max(task.deadline, tick);
+
+            this.buckets[(int) (deadline & this.mask)].add(task);
+        }
+    }
+
+    /**
+     *
+     * A task waiting in the wheel
+     *
+     */
+    public static final class WheelTask implements ScheduledTask {
+
+        private static final int STATE_PENDING = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+        private WheelTask next;
+        private WheelTask previous;
+        private Bucket bucket;
+
+        private WheelTask(TimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         *
+         * Gets the tick this task is due to be dispatched on
+         *
+         * @return The deadline tick
+         */
+        public long getDeadline() {
+            return this.deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!this.state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+
+            this.wheel.size.decrementAndGet();
+            this.wheel.cancelledTasks.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.state.get() == STATE_CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.state.get() != STATE_PENDING;
+        }
+
+        private boolean expire() {
+            if (!this.state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+                return false;
+            }
+
+            this.wheel.size.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     *
+     * Doubly linked list of the tasks in a single slot of the wheel
+     *
+     */
+    private static final class Bucket {
+
+        private WheelTask head;
+        private WheelTask tail;
+
+        private void add(WheelTask task) {
+            task.bucket = this;
+
+            if (this.head == null) {
+                this.head = task;
+                this.tail = task;
+            } else {
+                this.tail.next = task;
+                task.previous = this.tail;
+                this.tail = task;
+            }
+        }
+
+        private void expireTasks(long tick, Executor dispatcher) {
+            WheelTask task = this.head;
+
+            while (task != null) {
+                WheelTask next = task.next;
+
+                if (task.deadline <= tick) {
+                    this.remove(task);
+
+                    if (task.expire()) {
+                        dispatcher.execute(task.task);
+                    }
+                }
+
+                task = next;
+            }
+        }
+
+        private void remove(WheelTask task) {
+            if (task.bucket != this) {
+                return;
+            }
+
+            if (task.previous != null) {
+                task.previous.next = task.next;
+            }
+
+            if (task.next != null) {
+                task.next.previous = task.previous;
+            }
+
+            if (task == this.head) {
+                this.head = task.next;
+            }
+
+            if (task == this.tail) {
+                this.tail = task.previous;
+            }
+
+            task.next = null;
+            task.previous = null;
+            task.bucket = null;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  *
@@ -37,6 +38,29 @@ import java.util.Map;
  */
 public class YamlConfigFactory {
 
+    private static final List<Runnable> LOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     *
+     * Registers a listener that is run every time configs are loaded, or reloaded, by this factory.
+     * Used for clearing caches built from the previously loaded config instances
+     *
+     * @param listener The listener
+     */
+    public static void addLoadListener(Runnable listener) {
+        LOAD_LISTENERS.add(listener);
+    }
+
+    private static void notifyLoaded() {
+        for (Runnable listener : LOAD_LISTENERS) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                UtilLogger.logger().ifPresent(logger -> logger.error("Error running config load listener", e));
+            }
+        }
+    }
+
     /**
      *
      * Attempts to save the instance of the Config at the specified location
@@ -153,7 +177,9 @@ public class YamlConfigFactory {
             defaultConfig.getInstance().save();
         }
 
-        return loadDirectory(configFiles, serializers, style, configClass);
+        List<T> loaded = loadDirectory(configFiles, serializers, style, configClass);
+        notifyLoaded();
+        return loaded;
     }
 
     private static <T extends AbstractYamlConfig> List<Pair<Class<?>, Class<? extends TypeSerializer>>> getTypeSerializers(Class<T> configClass){
@@ -274,6 +300,7 @@ public class YamlConfigFactory {
         instance.base = base;
         instance.config = reference;
         instance.save();
+        notifyLoaded();
 
         return instance;
     }
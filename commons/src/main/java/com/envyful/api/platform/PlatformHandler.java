@@ -1,8 +1,12 @@
 package com.envyful.api.platform;
 
 import com.envyful.api.text.Placeholder;
+import com.google.common.collect.Lists;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public interface PlatformHandler {
 
@@ -10,6 +14,49 @@ public interface PlatformHandler {
 
     void runSync(Runnable runnable);
 
+    /**
+     *
+     * Runs the supplier on the main thread, returning a future completed with its result on that thread
+     *
+     * @param supplier The supplier to run on the main thread
+     * @return The future completed with the result
+     * @param <T> The result type
+     */
+    default <T> CompletableFuture<T> callSync(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        this.runSync(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     *
+     * Runs every supplier, in order, in a single task on the main thread
+     *
+     * @param suppliers The suppliers to run on the main thread
+     * @return The future completed with the results in the same order as the suppliers
+     * @param <T> The result type
+     */
+    default <T> CompletableFuture<List<T>> callSync(Collection<? extends Supplier<? extends T>> suppliers) {
+        List<Supplier<? extends T>> tasks = Lists.newArrayList(suppliers);
+
+        return this.callSync(() -> {
+            List<T> results = Lists.newArrayListWithCapacity(tasks.size());
+
+            for (Supplier<? extends T> task : tasks) {
+                results.add(task.get());
+            }
+
+            return results;
+        });
+    }
+
     void runLater(Runnable runnable, int delayTicks);
 
     double getTPS();
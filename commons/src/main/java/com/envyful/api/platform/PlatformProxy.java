@@ -4,6 +4,9 @@ import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.text.Placeholder;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class PlatformProxy {
 
@@ -31,6 +34,24 @@ public class PlatformProxy {
         handler.runSync(runnable);
     }
 
+    public static <T> CompletableFuture<T> callSync(Supplier<T> supplier) {
+        if (handler == null) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("No platform handler set but callSync was called"));
+            return CompletableFuture.failedFuture(new IllegalStateException("No platform handler set"));
+        }
+
+        return handler.callSync(supplier);
+    }
+
+    public static <T> CompletableFuture<List<T>> callSync(Collection<? extends Supplier<? extends T>> suppliers) {
+        if (handler == null) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("No platform handler set but callSync was called"));
+            return CompletableFuture.failedFuture(new IllegalStateException("No platform handler set"));
+        }
+
+        return handler.callSync(suppliers);
+    }
+
     public static void runLater(Runnable runnable, int delayTicks) {
         if (handler == null) {
             UtilLogger.logger().ifPresent(logger -> logger.error("No platform handler set but runLater was called"));
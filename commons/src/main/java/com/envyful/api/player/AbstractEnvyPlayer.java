@@ -35,6 +35,8 @@ public abstract class AbstractEnvyPlayer<T> implements EnvyPlayer<T> {
 
     protected T parent;
 
+    private volatile CompletableFuture<Void> loaded = CompletableFuture.completedFuture(null);
+
     protected AbstractEnvyPlayer(SaveManager<T> saveManager) {
         this.saveManager = saveManager;
     }
@@ -77,4 +79,25 @@ public abstract class AbstractEnvyPlayer<T> implements EnvyPlayer<T> {
     public List<Attribute<?>> getAttributes() {
         return Lists.newArrayList(this.attributes.values());
     }
+
+    @Override
+    public boolean isLoaded() {
+        return this.loaded.isDone() && !this.loaded.isCompletedExceptionally();
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitLoaded() {
+        return this.loaded.copy();
+    }
+
+    /**
+     *
+     * Sets the task loading the player's attributes. Used by the player manager, players without a load task
+     * are treated as loaded
+     *
+     * @param loadTask The task that completes once the attributes are set on the player
+     */
+    public void setLoadTask(CompletableFuture<?> loadTask) {
+        this.loaded = loadTask.thenApply(unused -> null);
+    }
 }
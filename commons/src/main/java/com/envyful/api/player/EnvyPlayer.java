@@ -54,4 +54,28 @@ public interface EnvyPlayer<T> {
 
     <A extends Attribute<?>> void setAttribute(A attribute);
 
+    /**
+     *
+     * Checks if the player's attributes have finished loading. Forge 1.20 starts loading during the login handshake
+     * and sets the data once the player has joined, Spigot and Velocity load when the player logs in and older Forge
+     * versions when they join. Players given no load task are reported as loaded.
+     * Implementations that don't track loading are always reported as loaded
+     *
+     * @return True if the attributes are loaded
+     */
+    default boolean isLoaded() {
+        return true;
+    }
+
+    /**
+     *
+     * Gets a future completed once the player's attributes have finished loading. Implementations that don't track
+     * loading return a completed future
+     *
+     * @return The future
+     */
+    default CompletableFuture<Void> awaitLoaded() {
+        return CompletableFuture.completedFuture(null);
+    }
+
 }
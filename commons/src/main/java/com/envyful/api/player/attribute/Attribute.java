@@ -25,6 +25,44 @@ public interface Attribute<A> {
         return true;
     }
 
+    /**
+     *
+     * Checks if the attribute has changed since it was last loaded or saved. Attributes that don't track their
+     * changes are always dirty, so are saved every time
+     *
+     * @return True if the attribute needs saving
+     */
+    default boolean isDirty() {
+        return true;
+    }
+
+    /**
+     *
+     * Marks the attribute as changed so that it is written on the next save
+     *
+     */
+    default void markDirty() {
+    }
+
+    /**
+     *
+     * Gets when {@link Attribute#markDirty()} was last called, used to save recently changed attributes first
+     *
+     * @return The time in milliseconds, or 0 if changes aren't tracked
+     */
+    default long getLastModified() {
+        return 0L;
+    }
+
+    /**
+     *
+     * Marks the attribute as matching the stored data. Called by the {@link com.envyful.api.player.save.SaveManager}
+     * after loading or before saving the attribute
+     *
+     */
+    default void markClean() {
+    }
+
     default void loadWithGenericId(Object object) throws ClassCastException {
         this.load((A) object);
     }
@@ -6,6 +6,9 @@ import java.io.Serializable;
  *
  * Abstract implementation of the attribute class storing the manager
  * and id of the attribute
+ * <br>
+ * Change tracking is opt-in. Attributes that override {@link #tracksChanges()} are only saved after
+ * {@link #markDirty()} is called, or when {@link #getDataHash()} no longer matches the hash from the last save
  *
  * @param <A> The attribute ID type
  * @param <B> The manager instance for the attribute
@@ -17,10 +20,65 @@ public abstract class ManagedAttribute<A, B>
 
     protected transient A id;
 
+    private transient volatile boolean clean;
+    private transient volatile int savedHash;
+    private transient volatile long lastModified;
+
     protected ManagedAttribute(B manager) {
         this.manager = manager;
     }
 
+    /**
+     *
+     * Enables change tracking for this attribute. Defaults to false, meaning the attribute is saved every time
+     *
+     * @return True if changes are tracked
+     */
+    protected boolean tracksChanges() {
+        return false;
+    }
+
+    /**
+     *
+     * Optional hash of the saved fields, used to detect changes made without calling {@link #markDirty()}.
+     * Only checked when {@link #tracksChanges()} is true
+     *
+     * @return The hash of the attribute's data
+     */
+    protected int getDataHash() {
+        return 0;
+    }
+
+    @Override
+    public boolean isDirty() {
+        if (!this.tracksChanges() || !this.clean) {
+            return true;
+        }
+
+        return this.getDataHash() != this.savedHash;
+    }
+
+    @Override
+    public void markDirty() {
+        this.clean = false;
+        this.lastModified = System.currentTimeMillis();
+    }
+
+    @Override
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    @Override
+    public void markClean() {
+        if (!this.tracksChanges()) {
+            return;
+        }
+
+        this.savedHash = this.getDataHash();
+        this.clean = true;
+    }
+
     protected abstract void load();
 
     protected abstract void save();
@@ -4,6 +4,7 @@ import com.envyful.api.player.EnvyPlayer;
 import com.envyful.api.player.attribute.Attribute;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -39,13 +40,30 @@ public interface SaveManager<T> {
 
     /**
      *
-     * Saves the player's data from the given attribute
+     * Saves the player's data from the given attribute.
+     * Attributes that are not {@link Attribute#isDirty()} are skipped
      *
      * @param uuid The offline UUID
      * @param attribute The attribute being saved
      */
     void saveData(UUID uuid, Attribute<?> attribute);
 
+    /**
+     *
+     * Saves a batch of attributes of the same type. Implementations that can write the whole batch at once,
+     * such as {@link com.envyful.api.player.save.impl.SQLSaveManager}, should override this. Otherwise it calls
+     * {@link SaveManager#saveData(UUID, Attribute)} for each attribute, which reports no failures, so implementations
+     * that want failed batches retried by {@link WriteBehindSaveManager} must override this and throw
+     *
+     * @param attributes The attributes to save, by the UUID they're saved for
+     * @throws RuntimeException If the batch could not be saved and should be retried
+     */
+    default void saveBatch(Map<UUID, Attribute<?>> attributes) {
+        for (Map.Entry<UUID, Attribute<?>> entry : attributes.entrySet()) {
+            this.saveData(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      *
      * Load the player's data for all registered {@link Attribute} using
@@ -0,0 +1,400 @@
+package com.envyful.api.player.save;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.attribute.Attribute;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ *
+ * A {@link SaveManager} that queues saves and writes them to another save manager in the background.
+ * <br>
+ * Saves are held per UUID and attribute type, so saving the same attribute again before the queue is flushed only
+ * writes it once. The queue is flushed when it reaches the batch size or once the flush interval has passed, with
+ * each attribute type written as a single {@link SaveManager#saveBatch(Map)}. Batches that fail by throwing are
+ * retried on the next flush, up to the retry limit. {@link com.envyful.api.player.save.impl.SQLSaveManager} and
+ * {@link com.envyful.api.player.save.impl.JsonSaveManager} report failed batches this way, other delegates using the
+ * default {@link SaveManager#saveBatch(Map)} only log their failures and are not retried.
+ * <br>
+ * Loading a player's data flushes their queued saves first and waits for any of their saves still being written, so
+ * a load never reads data that is about to be overwritten. {@link #drain(Duration)} should be called when the
+ * server stops so nothing queued is lost
+ *
+ * @param <T> The player type
+ */
+public class WriteBehindSaveManager<T> implements SaveManager<T> {
+
+    private final SaveManager<T> delegate;
+    private final int batchSize;
+    private final int maxRetries;
+    private final Map<PendingKey, PendingSave> pending = Maps.newConcurrentMap();
+    private final Map<UUID, List<CompletableFuture<Void>>> inFlight = Maps.newHashMap();
+    private final Object stateLock = new Object();
+    private final Object flushLock = new Object();
+    private final ScheduledFuture<?> flushTask;
+
+    private CompletableFuture<Void> runningFlush = CompletableFuture.completedFuture(null);
+
+    public WriteBehindSaveManager(SaveManager<T> delegate) {
+        this(delegate, Duration.ofSeconds(5), 100, 3);
+    }
+
+    /**
+     *
+     * Creates the save manager and starts flushing the queue on the interval given
+     *
+     * @param delegate The save manager that does the writing
+     * @param flushInterval The maximum time a save is queued for
+     * @param batchSize The number of queued saves that triggers an early flush
+     * @param maxRetries The number of times a failed save is retried before it is dropped
+     */
+    public WriteBehindSaveManager(SaveManager<T> delegate, Duration flushInterval, int batchSize, int maxRetries) {
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.flushTask = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.scheduleWithFixedDelay(this::requestFlush,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SaveManager<T> getDelegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        this.delegate.registerAttribute(attribute);
+    }
+
+    @Override
+    public void saveData(UUID uuid, Attribute<?> attribute) {
+        this.pending.put(new PendingKey(uuid, attribute.getClass()), new PendingSave(uuid, attribute, 0));
+
+        if (this.pending.size() >= this.batchSize) {
+            this.requestFlush();
+        }
+    }
+
+    @Override
+    public void saveBatch(Map<UUID, Attribute<?>> attributes) {
+        for (Map.Entry<UUID, Attribute<?>> entry : attributes.entrySet()) {
+            this.saveData(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+        if (!(id instanceof UUID)) {
+            return this.delegate.loadAttribute(attributeClass, id);
+        }
+
+        return this.awaitWrites((UUID) id).thenCompose(unused -> this.delegate.loadAttribute(attributeClass, id));
+    }
+
+    @Override
+    public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+        return this.awaitWrites(uuid).thenCompose(unused -> this.delegate.loadData(uuid));
+    }
+
+    /**
+     *
+     * Gets the number of saves waiting to be written
+     *
+     * @return The number of queued saves
+     */
+    public int getPendingSaves() {
+        return this.pending.size();
+    }
+
+    /**
+     *
+     * Stops the background flushing and writes everything queued on the calling thread, retrying failed batches
+     * until the queue is empty or the timeout passes. Waits for any flush already running instead of writing
+     * alongside it
+     *
+     * @param timeout The maximum time to spend draining
+     * @return True if every queued save was written
+     */
+    public boolean drain(Duration timeout) {
+        this.flushTask.cancel(false);
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            CompletableFuture<Void> running;
+            CompletableFuture<Void> drainFlush = null;
+
+            synchronized (this.flushLock) {
+                running = this.runningFlush;
+
+                if (running.isDone() && !this.pending.isEmpty()) {
+                    drainFlush = new CompletableFuture<>();
+                    this.runningFlush = drainFlush;
+                }
+            }
+
+            if (drainFlush != null) {
+                try {
+                    this.flushAll();
+                } finally {
+                    drainFlush.complete(null);
+                }
+
+                continue;
+            }
+
+            CompletableFuture<Void> waitFor = running.isDone() ? this.allWrites() : running;
+
+            if (waitFor == null) {
+                break;
+            }
+
+            try {
+                waitFor.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException ignored) {
+            }
+        }
+
+        return this.pending.isEmpty() && this.allWrites() == null;
+    }
+
+    private void requestFlush() {
+        synchronized (this.flushLock) {
+            if (this.pending.isEmpty() || !this.runningFlush.isDone()) {
+                return;
+            }
+
+            this.runningFlush = UtilConcurrency.runAsync("save:write-behind", this::flushAll);
+            this.runningFlush.thenRun(this::flushIfFull);
+        }
+    }
+
+    /**
+     *
+     * Starts another flush if the queue filled back up to the batch size while the last one was running, as the
+     * requests made by {@link #saveData(UUID, Attribute)} in that time were ignored
+     *
+     */
+    private void flushIfFull() {
+        if (this.pending.size() >= this.batchSize) {
+            this.requestFlush();
+        }
+    }
+
+    /**
+     *
+     * Completes once the player has no queued saves and none being written, flushing their queued saves first.
+     * A save is always either queued or being written while the state lock is held, so a load can never slip
+     * between the two and read data that is about to be overwritten
+     *
+     * @param uuid The UUID of the player
+     * @return The future completed once the player's saves are written
+     */
+    private CompletableFuture<Void> awaitWrites(UUID uuid) {
+        CompletableFuture<Void> writing;
+        boolean queued;
+
+        synchronized (this.stateLock) {
+            List<CompletableFuture<Void>> writes = this.inFlight.get(uuid);
+
+            writing = writes == null ? null : CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+            queued = writing == null && this.hasPending(uuid);
+        }
+
+        if (writing != null) {
+            return writing.thenCompose(unused -> this.awaitWrites(uuid));
+        }
+
+        if (queued) {
+            return UtilConcurrency.runAsync("save:write-behind", () -> this.flush(uuid))
+                    .thenCompose(unused -> this.awaitWrites(uuid));
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<Void> allWrites() {
+        synchronized (this.stateLock) {
+            if (this.inFlight.isEmpty()) {
+                return null;
+            }
+
+            List<CompletableFuture<Void>> writes = Lists.newArrayList();
+
+            for (List<CompletableFuture<Void>> value : this.inFlight.values()) {
+                writes.addAll(value);
+            }
+
+            return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+        }
+    }
+
+    private boolean hasPending(UUID uuid) {
+        for (PendingKey key : this.pending.keySet()) {
+            if (key.uuid.equals(uuid)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void flush(UUID uuid) {
+        CompletableFuture<Void> write = new CompletableFuture<>();
+
+        this.write(this.take(uuid::equals, write), write);
+    }
+
+    private void flushAll() {
+        CompletableFuture<Void> write = new CompletableFuture<>();
+
+        this.write(this.take(uuid -> true, write), write);
+    }
+
+    /**
+     *
+     * Moves the matching queued saves into a batch per attribute type, marking their players as being written to
+     *
+     * @param filter The players to take the saves of
+     * @param write The future completed once the batches are written
+     * @return The batches
+     */
+    private Map<Class<?>, Map<UUID, PendingSave>> take(Predicate<UUID> filter, CompletableFuture<Void> write) {
+        Map<Class<?>, Map<UUID, PendingSave>> batches = Maps.newHashMap();
+
+        synchronized (this.stateLock) {
+            for (PendingKey key : this.pending.keySet()) {
+                if (!filter.test(key.uuid)) {
+                    continue;
+                }
+
+                PendingSave save = this.pending.remove(key);
+
+                if (save == null) {
+                    continue;
+                }
+
+                batches.computeIfAbsent(key.attributeClass, ___ -> Maps.newHashMap()).put(key.uuid, save);
+                List<CompletableFuture<Void>> writes = this.inFlight.computeIfAbsent(key.uuid, ___ -> Lists.newArrayList());
+
+                if (!writes.contains(write)) {
+                    writes.add(write);
+                }
+            }
+        }
+
+        return batches;
+    }
+
+    private void write(Map<Class<?>, Map<UUID, PendingSave>> batches, CompletableFuture<Void> write) {
+        Map<Class<?>, Map<UUID, PendingSave>> failed = Maps.newHashMap();
+
+        try {
+            for (Map.Entry<Class<?>, Map<UUID, PendingSave>> batch : batches.entrySet()) {
+                Map<UUID, Attribute<?>> attributes = Maps.newHashMapWithExpectedSize(batch.getValue().size());
+
+                for (PendingSave save : batch.getValue().values()) {
+                    attributes.put(save.uuid, save.attribute);
+                }
+
+                try {
+                    this.delegate.saveBatch(attributes);
+                } catch (Exception e) {
+                    UtilLogger.logger().ifPresent(logger -> logger.error("Failed to save batch of "
+                            + batch.getKey().getName() + ", it will be retried", e));
+                    failed.put(batch.getKey(), batch.getValue());
+                }
+            }
+        } finally {
+            synchronized (this.stateLock) {
+                for (Map.Entry<Class<?>, Map<UUID, PendingSave>> batch : failed.entrySet()) {
+                    for (PendingSave save : batch.getValue().values()) {
+                        this.retry(batch.getKey(), save);
+                    }
+                }
+
+                for (Map<UUID, PendingSave> batch : batches.values()) {
+                    for (UUID uuid : batch.keySet()) {
+                        List<CompletableFuture<Void>> writes = this.inFlight.get(uuid);
+
+                        if (writes != null && writes.remove(write) && writes.isEmpty()) {
+                            this.inFlight.remove(uuid);
+                        }
+                    }
+                }
+            }
+
+            write.complete(null);
+        }
+    }
+
+    private void retry(Class<?> attributeClass, PendingSave save) {
+        if (save.attempts >= this.maxRetries) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Dropping save of {} for {} after {} attempts",
+                    attributeClass.getName(), save.uuid, save.attempts + 1));
+            return;
+        }
+
+        this.pending.putIfAbsent(new PendingKey(save.uuid, attributeClass),
+                new PendingSave(save.uuid, save.attribute, save.attempts + 1));
+    }
+
+    private static final class PendingKey {
+
+        private final UUID uuid;
+        private final Class<?> attributeClass;
+
+        private PendingKey(UUID uuid, Class<?> attributeClass) {
+            this.uuid = uuid;
+            this.attributeClass = attributeClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof PendingKey)) {
+                return false;
+            }
+
+            PendingKey that = (PendingKey) o;
+            return this.uuid.equals(that.uuid) && this.attributeClass.equals(that.attributeClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.uuid, this.attributeClass);
+        }
+    }
+
+    private static final class PendingSave {
+
+        private final UUID uuid;
+        private final Attribute<?> attribute;
+        private final int attempts;
+
+        private PendingSave(UUID uuid, Attribute<?> attribute, int attempts) {
+            this.uuid = uuid;
+            this.attribute = attribute;
+            this.attempts = attempts;
+        }
+    }
+}
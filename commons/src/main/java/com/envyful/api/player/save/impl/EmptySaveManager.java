@@ -49,12 +49,14 @@ public class EmptySaveManager<T> extends AbstractSaveManager<T> {
                     if (sharedAttribute == null) {
                         sharedAttribute = attribute;
                         attribute.loadWithGenericId(o);
+                        attribute.markClean();
                         this.addSharedAttribute(o, sharedAttribute);
                     }
 
                     return sharedAttribute;
                 } else {
                     attribute.loadWithGenericId(o);
+                    attribute.markClean();
                     return attribute;
                 }
             }).whenComplete((loaded, throwable) -> {
@@ -85,15 +87,17 @@ public class EmptySaveManager<T> extends AbstractSaveManager<T> {
                 if (sharedAttribute == null) {
                     sharedAttribute = attribute;
                     attribute.loadWithGenericId(id);
+                    attribute.markClean();
                     this.addSharedAttribute(id, sharedAttribute);
                 }
 
                 return sharedAttribute;
             } else {
                 attribute.loadWithGenericId(id);
+                attribute.markClean();
                 return attribute;
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE).exceptionally(throwable -> {
+        }, UtilConcurrency.namedExecutor("save:load-attribute")).exceptionally(throwable -> {
             UtilLogger.logger().ifPresent(logger -> logger.error("Error when loading attribute data for " + attributeClass.getName(), throwable));
             return null;
         });
@@ -101,6 +105,18 @@ public class EmptySaveManager<T> extends AbstractSaveManager<T> {
 
     @Override
     public void saveData(UUID uuid, Attribute<?> attribute) {
-        attribute.getId(uuid).whenComplete((o, throwable) -> attribute.saveWithGenericId(o));
+        if (!attribute.isDirty()) {
+            return;
+        }
+
+        attribute.markClean();
+        attribute.getId(uuid).whenComplete((o, throwable) -> {
+            try {
+                attribute.saveWithGenericId(o);
+            } catch (RuntimeException e) {
+                attribute.markDirty();
+                throw e;
+            }
+        });
     }
 }
@@ -115,7 +115,13 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
         }
 
         try (FileReader fileWriter = new FileReader(file)) {
-            return getGson().fromJson(new JsonReader(fileWriter), attributeClass);
+            Attribute<?> loaded = getGson().fromJson(new JsonReader(fileWriter), attributeClass);
+
+            if (loaded != null) {
+                loaded.markClean();
+            }
+
+            return loaded;
         } catch (IOException e) {
             UtilLogger.logger().ifPresent(logger -> logger.error("Error loading file for " + attributeClass.getName() + " for key " + key, e));
         }
@@ -145,11 +151,43 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
             } else {
                 return (A) this.readData(attributeClass, attribute, id);
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE);
+        }, UtilConcurrency.namedExecutor("save:load-attribute"));
     }
 
     @Override
     public void saveData(UUID uuid, Attribute<?> attribute) {
+        this.writeData(uuid, attribute);
+    }
+
+    /**
+     *
+     * Writes each dirty attribute in the batch to its file, throwing once they've all been tried if any of them
+     * could not be written so the batch can be retried. The attributes that were written are clean, so only the
+     * failed ones are written again
+     *
+     * @param attributes The attributes to save, by the UUID they're saved for
+     */
+    @Override
+    public void saveBatch(Map<UUID, Attribute<?>> attributes) {
+        int failed = 0;
+
+        for (Map.Entry<UUID, Attribute<?>> entry : attributes.entrySet()) {
+            if (!this.writeData(entry.getKey(), entry.getValue())) {
+                failed++;
+            }
+        }
+
+        if (failed > 0) {
+            throw new IllegalStateException("Failed to save " + failed + " of " + attributes.size() + " attributes");
+        }
+    }
+
+    private boolean writeData(UUID uuid, Attribute<?> attribute) {
+        if (!attribute.isDirty()) {
+            return true;
+        }
+
+        attribute.markClean();
         String dataDirectory = this.attributeDirectories.get(attribute.getClass());
         File file = Paths.get(dataDirectory, uuid.toString() + ".json").toFile();
 
@@ -164,8 +202,11 @@ public class JsonSaveManager<T> extends AbstractSaveManager<T> {
 
         try (FileWriter fileWriter = new FileWriter(file)) {
             getGson().toJson(attribute, attribute.getClass(), new JsonWriter(fileWriter));
+            return true;
         } catch (IOException e) {
+            attribute.markDirty();
             UtilLogger.logger().ifPresent(logger -> logger.error("There was an error writing to the file", e));
+            return false;
         }
     }
 
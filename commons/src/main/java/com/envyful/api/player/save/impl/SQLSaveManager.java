@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,56 +33,76 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
     private final Database database;
     protected final Map<Class<? extends Attribute<?>>, SQLAttributeData> registeredSqlAttributeData = Maps.newConcurrentMap();
 
+    private Duration readTimeout = Duration.ofSeconds(30);
+
     public SQLSaveManager(PlayerManager<?, ?> playerManager, Database database) {
         super(playerManager);
         this.database = database;
     }
 
+    /**
+     *
+     * Sets the maximum time reading an attribute can take before it is abandoned and the load fails.
+     * The timeout is also set as the query timeout, rounded up to whole seconds, so the database stops the read too
+     *
+     * @param readTimeout The timeout
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
     @Override
     public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
         if (this.registeredAttributes.isEmpty()) {
             return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
-        List<Attribute<?>> attributes = Lists.newArrayList();
         List<CompletableFuture<Attribute<?>>> loadTasks = Lists.newArrayList();
 
         for (Map.Entry<Class<? extends Attribute<?>>, AttributeData<?, ?>> entry : this.registeredAttributes.entrySet()) {
             AttributeData<?, ?> value = entry.getValue();
             Attribute<?> attribute = value.getConstructor().get();
 
-            loadTasks.add(attribute.getId(uuid).thenApply(o -> {
+            loadTasks.add(attribute.getId(uuid).thenCompose(o -> {
                 if (o == null) {
-                    return null;
+                    return CompletableFuture.completedFuture(null);
                 }
 
-                if (attribute.isShared()) {
-                    Attribute<?> sharedAttribute = this.getSharedAttribute((Class<? extends Attribute<?>>) attribute.getClass(), o);
+                return UtilConcurrency.supplyAsync("save:read-data", () -> {
+                    if (attribute.isShared()) {
+                        Attribute<?> sharedAttribute = this.getSharedAttribute((Class<? extends Attribute<?>>) attribute.getClass(), o);
+
+                        if (sharedAttribute == null) {
+                            sharedAttribute = this.readData(attribute,
+                                    this.registeredSqlAttributeData.get(entry.getKey()));
+                            this.addSharedAttribute(o, sharedAttribute);
+                        }
 
-                    if (sharedAttribute == null) {
-                        sharedAttribute = this.readData(attribute,
+                        return sharedAttribute;
+                    } else {
+                        return this.readData(attribute,
                                 this.registeredSqlAttributeData.get(entry.getKey()));
-                        this.addSharedAttribute(o, sharedAttribute);
                     }
-
-                    return sharedAttribute;
-                } else {
-                    return this.readData(attribute,
-                            this.registeredSqlAttributeData.get(entry.getKey()));
-                }
-            }).whenComplete((loaded, throwable) -> {
-                if (loaded != null) {
-                    attributes.add(loaded);
-                } else if (throwable != null) {
-                    UtilLogger.logger().ifPresent(logger -> logger.error("Error when loading attribute " + entry.getKey().getName(), throwable));
-                }
+                }, this.readTimeout);
             }).exceptionally(throwable -> {
                 UtilLogger.logger().ifPresent(logger -> logger.error("Error when loading attribute " + entry.getKey().getName(), throwable));
                 return null;
             }));
         }
 
-        return CompletableFuture.allOf(loadTasks.toArray(new CompletableFuture[0])).thenApply(unused -> attributes);
+        return CompletableFuture.allOf(loadTasks.toArray(new CompletableFuture[0])).thenApply(unused -> {
+            List<Attribute<?>> attributes = Lists.newArrayListWithCapacity(loadTasks.size());
+
+            for (CompletableFuture<Attribute<?>> loadTask : loadTasks) {
+                Attribute<?> loaded = loadTask.join();
+
+                if (loaded != null) {
+                    attributes.add(loaded);
+                }
+            }
+
+            return attributes;
+        });
     }
 
     protected Attribute<?> readData(
@@ -93,6 +114,8 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
                      connection.prepareStatement(sqlAttributeData.getQueries().loadQuery())) {
             Field[] fields = sqlAttributeData.getFieldsPositions().get(sqlAttributeData.getQueries().loadQuery());
 
+            preparedStatement.setQueryTimeout(this.getQueryTimeoutSeconds());
+
             for (int i = 0; i < fields.length; i++) {
                 preparedStatement.setObject(i, fields[i].get(original));
             }
@@ -114,6 +137,8 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
                     fieldData.getKey().set(original, resultSet.getObject(fieldData.getValue().getName()));
                 }
             }
+
+            original.markClean();
         } catch (SQLException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -121,13 +146,19 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
         return original;
     }
 
+    private int getQueryTimeoutSeconds() {
+        long seconds = (this.readTimeout.toMillis() + 999) / 1000;
+
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
     @Override
     public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
         if (id == null) {
             return CompletableFuture.completedFuture(null);
         }
 
-        return CompletableFuture.supplyAsync(() -> {
+        return UtilConcurrency.supplyAsync("save:load-attribute", () -> {
             AttributeData<?, A> attributeData = (AttributeData<?, A>) this.registeredAttributes.get(attributeClass);
             A attribute = attributeData.getConstructor().get();
 
@@ -145,32 +176,85 @@ public class SQLSaveManager<T> extends AbstractSaveManager<T> {
                 return (A) this.readData(attribute,
                         this.registeredSqlAttributeData.get(attributeClass));
             }
-        }, UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE);
+        }, this.readTimeout);
     }
 
     @Override
     public void saveData(UUID player, Attribute<?> attribute) {
+        if (!attribute.isDirty()) {
+            return;
+        }
+
         SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(attribute.getClass());
+        attribute.markClean();
 
         try (Connection connection = this.database.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sqlAttributeData.getQueries().updateQuery())) {
-            Field[] fieldPositions = sqlAttributeData.getFieldsPositions().get(sqlAttributeData.getQueries().updateQuery());
+            this.setUpdateParameters(preparedStatement, sqlAttributeData, attribute);
+            preparedStatement.executeUpdate();
+        } catch (SQLException | IllegalAccessException e) {
+            attribute.markDirty();
+            e.printStackTrace();
+        }
+    }
 
-            for (int i = 0; i < fieldPositions.length; i++) {
-                Field fieldPosition = fieldPositions[i];
+    /**
+     *
+     * Writes all the dirty attributes in the batch using a single connection and JDBC batch update
+     *
+     * @param attributes The attributes to save, by the UUID they're saved for
+     */
+    @Override
+    public void saveBatch(Map<UUID, Attribute<?>> attributes) {
+        List<Attribute<?>> dirty = Lists.newArrayList();
 
-                FieldData fieldData = sqlAttributeData.getFieldData().get(fieldPosition);
+        for (Attribute<?> attribute : attributes.values()) {
+            if (attribute.isDirty()) {
+                dirty.add(attribute);
+            }
+        }
 
-                if (fieldData.getSaveHandler() != null) {
-                    preparedStatement.setString(i, fieldData.getSaveHandler().convert(fieldPosition.get(attribute)));
-                } else {
-                    preparedStatement.setObject(i, fieldPosition.get(attribute));
-                }
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        SQLAttributeData sqlAttributeData = this.registeredSqlAttributeData.get(dirty.get(0).getClass());
+
+        for (Attribute<?> attribute : dirty) {
+            attribute.markClean();
+        }
+
+        try (Connection connection = this.database.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sqlAttributeData.getQueries().updateQuery())) {
+            for (Attribute<?> attribute : dirty) {
+                this.setUpdateParameters(preparedStatement, sqlAttributeData, attribute);
+                preparedStatement.addBatch();
             }
 
-            preparedStatement.executeUpdate();
+            preparedStatement.executeBatch();
         } catch (SQLException | IllegalAccessException e) {
-            e.printStackTrace();
+            for (Attribute<?> attribute : dirty) {
+                attribute.markDirty();
+            }
+
+            throw new IllegalStateException("Failed to save batch of " + dirty.size() + " attributes", e);
+        }
+    }
+
+    private void setUpdateParameters(PreparedStatement preparedStatement, SQLAttributeData sqlAttributeData,
+                                     Attribute<?> attribute) throws SQLException, IllegalAccessException {
+        Field[] fieldPositions = sqlAttributeData.getFieldsPositions().get(sqlAttributeData.getQueries().updateQuery());
+
+        for (int i = 0; i < fieldPositions.length; i++) {
+            Field fieldPosition = fieldPositions[i];
+
+            FieldData fieldData = sqlAttributeData.getFieldData().get(fieldPosition);
+
+            if (fieldData.getSaveHandler() != null) {
+                preparedStatement.setString(i, fieldData.getSaveHandler().convert(fieldPosition.get(attribute)));
+            } else {
+                preparedStatement.setObject(i, fieldPosition.get(attribute));
+            }
         }
     }
 
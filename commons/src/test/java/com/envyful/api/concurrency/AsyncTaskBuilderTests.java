@@ -0,0 +1,145 @@
+package com.envyful.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncTaskBuilderTests {
+
+    // Checks a run due while the previous one is executing is skipped rather than run alongside it
+    @Test
+    void skipIfRunningNeverOverlaps() throws InterruptedException {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger runs = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean(false);
+
+        new AsyncTaskBuilder()
+                .interval(5L)
+                .overlapPolicy(OverlapPolicy.SKIP_IF_RUNNING)
+                .cancelCondition(stop::get)
+                .name("test:skip")
+                .task(() -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    runs.incrementAndGet();
+                    sleep(30L);
+                    active.decrementAndGet();
+                })
+                .start();
+
+        Thread.sleep(300L);
+        stop.set(true);
+
+        assert maxActive.get() == 1;
+        assert runs.get() > 1 && runs.get() < 20;
+    }
+
+    // Checks runs missed during a slow run are merged into one run straight after it
+    @Test
+    void coalesceMergesMissedRuns() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean(false);
+
+        new AsyncTaskBuilder()
+                .interval(5L)
+                .overlapPolicy(OverlapPolicy.COALESCE)
+                .cancelCondition(stop::get)
+                .name("test:coalesce")
+                .task(() -> {
+                    runs.incrementAndGet();
+                    sleep(100L);
+                })
+                .start();
+
+        Thread.sleep(350L);
+        stop.set(true);
+
+        assert runs.get() >= 3 && runs.get() <= 5;
+    }
+
+    // Checks the watchdog interrupts a run that takes too long without the interrupt leaking into the next run
+    @Test
+    void watchdogInterruptDoesNotLeak() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch laterRuns = new CountDownLatch(20);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger leaked = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean(false);
+
+        new AsyncTaskBuilder()
+                .interval(1L)
+                .overlapPolicy(OverlapPolicy.FIXED_DELAY)
+                .maxRuntime(20L, true)
+                .cancelCondition(stop::get)
+                .name("test:watchdog")
+                .task(() -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        leaked.incrementAndGet();
+                    }
+
+                    if (runs.incrementAndGet() == 1) {
+                        try {
+                            Thread.sleep(10_000L);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                        }
+
+                        return;
+                    }
+
+                    laterRuns.countDown();
+                    sleep(19L);
+                })
+                .start();
+
+        assert interrupted.await(5, TimeUnit.SECONDS);
+        assert laterRuns.await(5, TimeUnit.SECONDS);
+        stop.set(true);
+
+        assert leaked.get() == 0;
+    }
+
+    // Checks the default fixed rate policy also uses the watchdog and records its runs under the task name
+    @Test
+    void fixedRateUsesWatchdogAndName() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean(false);
+
+        new AsyncTaskBuilder()
+                .interval(5L)
+                .maxRuntime(20L, true)
+                .cancelCondition(stop::get)
+                .name("test:fixed-rate")
+                .task(() -> {
+                    if (runs.incrementAndGet() != 1) {
+                        return;
+                    }
+
+                    try {
+                        Thread.sleep(10_000L);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                })
+                .start();
+
+        assert interrupted.await(5, TimeUnit.SECONDS);
+        Thread.sleep(50L);
+        stop.set(true);
+
+        assert runs.get() > 1;
+        assert UtilConcurrency.METRICS.getStats("test:fixed-rate").snapshot().getCompleted() > 1;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.envyful.api.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class CancellationTokenTests {
+
+    // Checks a task past its deadline fails with a timeout, is interrupted and is recorded as timed out
+    @Test
+    void timeoutInterruptsTask() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> future = UtilConcurrency.supplyAsync("test:timeout", () -> {
+            try {
+                Thread.sleep(10_000L);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+
+            return "finished";
+        }, Duration.ofMillis(100));
+        CompletableFuture<Integer> dependent = future.thenApply(String::length);
+
+        try {
+            dependent.join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof TimeoutException;
+        }
+
+        assert interrupted.await(5, TimeUnit.SECONDS);
+        assert UtilConcurrency.METRICS.getStats("test:timeout").snapshot().getTimedOut() == 1;
+    }
+
+    // Checks cancelling one future cancels every other task sharing its token
+    @Test
+    void cancellationPropagates() {
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<Void> blocker = new CompletableFuture<>();
+        CompletableFuture<Object> first = UtilConcurrency.supplyAsync("test:cancel", blocker::join, token);
+        CompletableFuture<Object> second = token.bind(new CompletableFuture<>());
+
+        first.cancel(false);
+
+        assert token.isCancelled();
+        assert second.isCompletedExceptionally();
+        blocker.complete(null);
+    }
+
+    // Checks a task that finishes in time is unaffected by its deadline
+    @Test
+    void completesBeforeDeadline() {
+        assert UtilConcurrency.supplyAsync("test:fast", () -> 5, Duration.ofSeconds(5)).join() == 5;
+    }
+}
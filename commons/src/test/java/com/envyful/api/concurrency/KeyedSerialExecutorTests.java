@@ -0,0 +1,76 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class KeyedSerialExecutorTests {
+
+    // Checks tasks for the same key run in submission order even with many threads available
+    @Test
+    void sameKeyRunsInOrder() {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+        List<Integer> order = Collections.synchronizedList(Lists.newArrayList());
+        List<CompletableFuture<Void>> futures = Lists.newArrayList();
+
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            futures.add(executor.execute("player", () -> order.add(value)));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        pool.shutdown();
+
+        for (int i = 0; i < 200; i++) {
+            assert order.get(i) == i;
+        }
+    }
+
+    // Checks different keys do not wait for each other
+    @Test
+    void differentKeysRunInParallel() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        executor.execute("first", () -> this.awaitQuietly(bothStarted));
+        executor.execute("second", () -> this.awaitQuietly(bothStarted));
+
+        assert bothStarted.await(5, TimeUnit.SECONDS);
+        pool.shutdown();
+    }
+
+    // Checks a failing task does not block the tasks queued after it
+    @Test
+    void failureDoesNotBlockKey() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+
+        CompletableFuture<Void> failed = executor.execute("player", () -> {
+            throw new IllegalStateException("Expected failure");
+        });
+        CompletableFuture<Integer> next = executor.submit("player", () -> 5);
+
+        assert next.join() == 5;
+        assert failed.isCompletedExceptionally();
+        pool.shutdown();
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParallelOperationsTests {
+
+    // Checks mapped results keep the order of the input regardless of chunking
+    @Test
+    void mapKeepsOrder() {
+        List<Integer> items = Lists.newArrayList();
+
+        for (int i = 0; i < 10_000; i++) {
+            items.add(i);
+        }
+
+        List<Integer> results = UtilConcurrency.parallelMap(items, 7, value -> value * 2).join();
+
+        assert results.size() == items.size();
+
+        for (int i = 0; i < results.size(); i++) {
+            assert results.get(i) == i * 2;
+        }
+    }
+
+    // Checks every item is visited exactly once
+    @Test
+    void forEachVisitsAll() {
+        List<Integer> items = Lists.newArrayList();
+        LongAdder total = new LongAdder();
+
+        for (int i = 1; i <= 1000; i++) {
+            items.add(i);
+        }
+
+        UtilConcurrency.parallelForEach(items, value -> total.add(value)).join();
+
+        assert total.sum() == 500_500L;
+    }
+
+    // Checks the combiner merges chunks in order so non-commutative reductions work
+    @Test
+    void reduceCombinesInOrder() {
+        List<String> items = Lists.newArrayList();
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 500; i++) {
+            items.add(String.valueOf(i % 10));
+            expected.append(i % 10);
+        }
+
+        String result = UtilConcurrency.parallelReduce(items, "", (partial, item) -> partial + item, String::concat)
+                .join();
+
+        assert result.equals(expected.toString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.envyful.api.concurrency;
+
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+public class UpdateBuilderTests {
+
+    // Checks the ETag of the first response is sent back and a 304 keeps the previous result
+    @Test
+    void conditionalRequests() throws IOException {
+        List<String> receivedTags = Collections.synchronizedList(Lists.newArrayList());
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        server.createContext("/latest", exchange -> {
+            String tag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedTags.add(String.valueOf(tag));
+
+            if ("\"v2\"".equals(tag)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+
+            byte[] body = "{\"tag_name\":\"2.0.0\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v2\"");
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            UpdateBuilder<Object> builder = new UpdateBuilder<>()
+                    .version("1.0.0")
+                    .apiUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/latest");
+
+            builder.check();
+            assert !builder.isUpToDate();
+
+            builder.check();
+            assert !builder.isUpToDate();
+            assert receivedTags.size() == 2;
+            assert receivedTags.get(0).equals("null");
+            assert receivedTags.get(1).equals("\"v2\"");
+            assert !builder.isDue(System.currentTimeMillis());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // Checks a failed request is retried sooner than the normal interval
+    @Test
+    void backoffOnError() {
+        UpdateBuilder<Object> builder = new UpdateBuilder<>()
+                .version("1.0.0")
+                .interval(10_000_000L)
+                .apiUrl("http://127.0.0.1:1/latest");
+
+        builder.check();
+
+        assert !builder.isDue(System.currentTimeMillis());
+        assert builder.isDue(System.currentTimeMillis() + 61_000L);
+        assert builder.isUpToDate();
+    }
+}
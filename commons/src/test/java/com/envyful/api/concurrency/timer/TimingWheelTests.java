@@ -0,0 +1,97 @@
+package com.envyful.api.concurrency.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelTests {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    // Checks the task is only dispatched once its deadline tick is processed
+    @Test
+    void expiresOnDeadline() {
+        TimingWheel wheel = new TimingWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+
+        wheel.schedule(runs::incrementAndGet, 3);
+
+        for (int i = 0; i < 3; i++) {
+            wheel.advance(DIRECT);
+        }
+
+        assert runs.get() == 0;
+
+        wheel.advance(DIRECT);
+
+        assert runs.get() == 1;
+        assert wheel.size() == 0;
+    }
+
+    // Checks that delays longer than a full rotation of the wheel wait for the correct round
+    @Test
+    void delayLongerThanWheel() {
+        TimingWheel wheel = new TimingWheel(4);
+        AtomicInteger runs = new AtomicInteger();
+
+        wheel.schedule(runs::incrementAndGet, 10);
+
+        for (int i = 0; i < 10; i++) {
+            wheel.advance(DIRECT);
+        }
+
+        assert runs.get() == 0;
+
+        wheel.advance(DIRECT);
+
+        assert runs.get() == 1;
+    }
+
+    // Checks cancelled tasks are never dispatched
+    @Test
+    void cancelledTaskDoesNotRun() {
+        TimingWheel wheel = new TimingWheel(8);
+        AtomicInteger runs = new AtomicInteger();
+
+        ScheduledTask first = wheel.schedule(runs::incrementAndGet, 2);
+        wheel.schedule(runs::incrementAndGet, 2);
+        wheel.advance(DIRECT);
+
+        assert first.cancel();
+        assert !first.cancel();
+
+        for (int i = 0; i < 4; i++) {
+            wheel.advance(DIRECT);
+        }
+
+        assert runs.get() == 1;
+        assert first.isCancelled();
+        assert wheel.size() == 0;
+    }
+
+    // Checks conditional tasks only run once their predicate passes
+    @Test
+    void conditionRegistrySweep() {
+        ConditionRegistry registry = new ConditionRegistry();
+        AtomicBoolean ready = new AtomicBoolean(false);
+        AtomicInteger runs = new AtomicInteger();
+
+        registry.register(runnable -> ready.get(), runs::incrementAndGet);
+        ScheduledTask cancelled = registry.register(runnable -> true, runs::incrementAndGet);
+        cancelled.cancel();
+
+        registry.sweep(DIRECT);
+
+        assert runs.get() == 0;
+        assert registry.size() == 1;
+
+        ready.set(true);
+        registry.sweep(DIRECT);
+        registry.sweep(DIRECT);
+
+        assert runs.get() == 1;
+        assert registry.isEmpty();
+    }
+}
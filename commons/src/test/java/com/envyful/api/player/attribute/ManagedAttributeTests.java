@@ -0,0 +1,88 @@
+package com.envyful.api.player.attribute;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class ManagedAttributeTests {
+
+    // Checks attributes without change tracking are always saved
+    @Test
+    void untrackedAlwaysDirty() {
+        TestAttribute attribute = new TestAttribute(false);
+
+        attribute.markClean();
+
+        assert attribute.isDirty();
+    }
+
+    // Checks a tracked attribute is only dirty after markDirty or a change to its data hash
+    @Test
+    void trackedDirtyOnChange() {
+        TestAttribute attribute = new TestAttribute(true);
+
+        assert attribute.isDirty();
+
+        attribute.markClean();
+        assert !attribute.isDirty();
+
+        attribute.markDirty();
+        assert attribute.isDirty();
+
+        attribute.markClean();
+        attribute.value = 5;
+        assert attribute.isDirty();
+
+        attribute.markClean();
+        assert !attribute.isDirty();
+    }
+
+    private static final class TestAttribute extends ManagedAttribute<UUID, Object> {
+
+        private final boolean tracked;
+        private int value = 0;
+
+        private TestAttribute(boolean tracked) {
+            super(null);
+
+            this.tracked = tracked;
+        }
+
+        @Override
+        protected boolean tracksChanges() {
+            return this.tracked;
+        }
+
+        @Override
+        protected int getDataHash() {
+            return this.value;
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(this.id);
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+
+        @Override
+        protected void load() {
+        }
+
+        @Override
+        protected void save() {
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.envyful.api.player.save;
+
+import com.envyful.api.player.attribute.Attribute;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WriteBehindSaveManagerTests {
+
+    // Checks repeated saves of the same attribute are written once, in one batch
+    @Test
+    void coalescesSaves() {
+        RecordingSaveManager delegate = new RecordingSaveManager(0);
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                Duration.ofMinutes(1), 100, 3);
+        UUID uuid = UUID.randomUUID();
+        TestAttribute attribute = new TestAttribute();
+
+        for (int i = 0; i < 10; i++) {
+            saveManager.saveData(uuid, attribute);
+        }
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert saveManager.getPendingSaves() == 2;
+        assert saveManager.drain(Duration.ofSeconds(5));
+        assert delegate.batches.size() == 1;
+        assert delegate.batches.get(0).size() == 2;
+    }
+
+    // Checks a failed batch is retried and written on a later flush
+    @Test
+    void retriesFailedBatches() {
+        RecordingSaveManager delegate = new RecordingSaveManager(2);
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                Duration.ofMinutes(1), 100, 3);
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert saveManager.drain(Duration.ofSeconds(5));
+        assert delegate.attempts.get() == 3;
+        assert delegate.batches.size() == 1;
+    }
+
+    // Checks a load waits for the player's save that is being written in the background
+    @Test
+    void loadWaitsForInFlightSave() throws Exception {
+        RecordingSaveManager delegate = new RecordingSaveManager(0);
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                Duration.ofMinutes(1), 1, 3);
+        UUID uuid = UUID.randomUUID();
+
+        delegate.release = new CountDownLatch(1);
+        saveManager.saveData(uuid, new TestAttribute());
+
+        assert delegate.writing.await(5, TimeUnit.SECONDS);
+        assert saveManager.getPendingSaves() == 0;
+
+        CompletableFuture<List<Attribute<?>>> load = saveManager.loadData(uuid);
+
+        Thread.sleep(100L);
+        assert !load.isDone();
+
+        delegate.release.countDown();
+        load.get(5, TimeUnit.SECONDS);
+
+        assert delegate.events.equals(Arrays.asList("save", "load"));
+    }
+
+    // Checks saves that fill the queue while a flush is running are flushed once it finishes
+    @Test
+    void flushesAgainWhenFullAfterFlush() throws Exception {
+        RecordingSaveManager delegate = new RecordingSaveManager(0);
+        WriteBehindSaveManager<Object> saveManager = new WriteBehindSaveManager<>(delegate,
+                Duration.ofMinutes(1), 2, 3);
+
+        delegate.release = new CountDownLatch(1);
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+
+        assert delegate.writing.await(5, TimeUnit.SECONDS);
+
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+        saveManager.saveData(UUID.randomUUID(), new TestAttribute());
+        assert saveManager.getPendingSaves() == 2;
+
+        delegate.release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000L;
+
+        while (saveManager.getPendingSaves() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+
+        assert saveManager.getPendingSaves() == 0;
+    }
+
+    private static final class RecordingSaveManager implements SaveManager<Object> {
+
+        private final List<Map<UUID, Attribute<?>>> batches = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        private RecordingSaveManager(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void saveBatch(Map<UUID, Attribute<?>> attributes) {
+            this.writing.countDown();
+
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (this.attempts.incrementAndGet() <= this.failures) {
+                throw new IllegalStateException("Test failure");
+            }
+
+            this.batches.add(attributes);
+            this.events.add("save");
+        }
+
+        @Override
+        public void registerAttribute(Class<? extends Attribute<?>> attribute) {
+        }
+
+        @Override
+        public void saveData(UUID uuid, Attribute<?> attribute) {
+        }
+
+        @Override
+        public <A extends Attribute<?>, B> CompletableFuture<A> loadAttribute(Class<? extends A> attributeClass, B id) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<Attribute<?>>> loadData(UUID uuid) {
+            this.events.add("load");
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+    }
+
+    private static final class TestAttribute implements Attribute<UUID> {
+
+        @Override
+        public CompletableFuture<UUID> getId(UUID playerUuid) {
+            return CompletableFuture.completedFuture(playerUuid);
+        }
+
+        @Override
+        public CompletableFuture<UUID> getId() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void load(UUID id) {
+        }
+
+        @Override
+        public void save(UUID id) {
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.envyful.api.forge.concurrency;
 
 import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.timer.ScheduledTask;
+import com.envyful.api.forge.concurrency.profiler.TickProfiler;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  *
@@ -9,12 +15,15 @@ import com.envyful.api.concurrency.UtilConcurrency;
  */
 public class ForgeTaskBuilder {
 
+    private static final Map<Long, AtomicLong> INTERVAL_OFFSETS = Maps.newConcurrentMap();
+
     private boolean async = true;
     private long delayTicks = 0;
     private long intervalTicks = 10L;
 
     private Runnable task;
-    private boolean started = false;
+    private String tag;
+    private ScheduledTask scheduledTask = null;
 
     public ForgeTaskBuilder() {}
 
@@ -69,55 +78,100 @@ public class ForgeTaskBuilder {
 
     /**
      *
-     * Runs the task
+     * Runs the task on the shared server tick wheel. The first run happens after the delay, plus an offset within
+     * the interval so tasks registered with the same interval do not all run on the same tick
      *
      */
     public void start() {
+        this.schedule();
+    }
+
+    /**
+     *
+     * Same as {@link ForgeTaskBuilder#start()} but returns a handle for the task
+     *
+     * @return The handle that can be used to stop the task, the existing handle if the task was already started
+     */
+    public synchronized ScheduledTask schedule() {
         if (this.task == null) {
             throw new IllegalArgumentException("Task cannot be null");
         }
 
-        if (this.started) {
-            return;
+        if (this.scheduledTask != null) {
+            return this.scheduledTask;
         }
 
-        this.started = true;
-        RepeatedRunnable runnable = new RepeatedRunnable(this);
+        this.tag = "task:" + TickProfiler.getCallerTag();
+
+        long interval = Math.max(1L, this.intervalTicks);
+        long offset = INTERVAL_OFFSETS.computeIfAbsent(interval, key -> new AtomicLong()).getAndIncrement() % interval;
+        RepeatingTask repeatingTask = new RepeatingTask(this, interval);
 
-        UtilConcurrency.runRepeatingTask(runnable, 50L, 50L);
+        this.scheduledTask = repeatingTask;
+        repeatingTask.schedule(this.delayTicks + offset);
+        return repeatingTask;
     }
 
-    private static final class RepeatedRunnable implements Runnable {
+    /**
+     *
+     * Reschedules itself in the tick wheel after each run, so a task costs nothing on the ticks it is not due
+     *
+     */
+    private static final class RepeatingTask implements ScheduledTask, Runnable {
 
         private final ForgeTaskBuilder taskBuilder;
+        private final long interval;
 
-        private int delayTicks = 0;
-        private int ticks = 0;
-        private int lastRunTicks = 0;
+        private volatile ScheduledTask next;
+        private volatile boolean cancelled = false;
 
-        private RepeatedRunnable(ForgeTaskBuilder taskBuilder) {
+        private RepeatingTask(ForgeTaskBuilder taskBuilder, long interval) {
             this.taskBuilder = taskBuilder;
+            this.interval = interval;
+        }
+
+        private void schedule(long delayTicks) {
+            this.next = UtilForgeConcurrency.getTickListener().schedule(this, delayTicks);
+
+            if (this.cancelled) {
+                this.next.cancel();
+            }
         }
 
         @Override
         public void run() {
-            ++this.delayTicks;
-
-            if (this.delayTicks <= this.taskBuilder.delayTicks) {
+            if (this.cancelled) {
                 return;
             }
 
-            ++this.ticks;
+            this.schedule(this.interval);
 
-            if (this.lastRunTicks == 0 || (this.ticks - this.lastRunTicks) == this.taskBuilder.intervalTicks) {
-                this.lastRunTicks = this.ticks;
+            if (this.taskBuilder.async) {
+                UtilConcurrency.runAsync(this.taskBuilder.tag, this.taskBuilder.task);
+            } else {
+                TickProfiler.wrap(this.taskBuilder.tag, this.taskBuilder.task).run();
+            }
+        }
 
-                if (this.taskBuilder.async) {
-                    UtilConcurrency.runAsync(() -> this.taskBuilder.task.run());
-                } else {
-                    UtilForgeConcurrency.runSync(this.taskBuilder.task);
-                }
+        @Override
+        public boolean cancel() {
+            if (this.cancelled) {
+                return false;
             }
+
+            this.cancelled = true;
+            this.next.cancel();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.cancelled;
         }
     }
 }
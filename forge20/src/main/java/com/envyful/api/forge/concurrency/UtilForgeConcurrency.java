@@ -1,9 +1,17 @@
 package com.envyful.api.forge.concurrency;
 
+import com.envyful.api.concurrency.timer.ScheduledTask;
 import com.envyful.api.forge.concurrency.listener.ServerTickListener;
+import com.envyful.api.forge.concurrency.listener.TaskPriority;
+import com.envyful.api.forge.concurrency.profiler.TickProfiler;
+import com.google.common.collect.Lists;
 import net.minecraftforge.common.MinecraftForge;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  *
@@ -25,7 +33,87 @@ public class UtilForgeConcurrency {
      * @param runnable The runnable to be run on the main thread
      */
     public static void runSync(Runnable runnable) {
-        TICK_LISTENER.addTask(runnable);
+        TICK_LISTENER.addTask(TickProfiler.wrap(runnable));
+    }
+
+    /**
+     *
+     * Passes runnable task to be run on the main minecraft thread, recorded under the given tag by the
+     * {@link TickProfiler} instead of the calling class
+     *
+     * @param tag The tag for the profiler
+     * @param runnable The runnable to be run on the main thread
+     */
+    public static void runSync(String tag, Runnable runnable) {
+        TICK_LISTENER.addTask(TickProfiler.wrap(tag, runnable));
+    }
+
+    /**
+     *
+     * Passes runnable task to be run on the main minecraft thread in the given priority lane
+     *
+     * @param runnable The runnable to be run on the main thread
+     * @param priority The priority of the task
+     */
+    public static void runSync(Runnable runnable, TaskPriority priority) {
+        TICK_LISTENER.addTask(TickProfiler.wrap(runnable), priority);
+    }
+
+    /**
+     *
+     * Runs the supplier on the main minecraft thread, returning a future completed with its result on that thread.
+     * <br>
+     * The supplier is always queued, so joining the future from the main thread will never complete
+     *
+     * @param supplier The supplier to run on the main thread
+     * @return The future completed with the result
+     * @param <T> The result type
+     */
+    public static <T> CompletableFuture<T> callSync(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        TICK_LISTENER.addTask(TickProfiler.wrap(() -> {
+            try {
+                future.complete(supplier.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     *
+     * Runs every supplier, in order, in a single task on the main minecraft thread. Useful for reading many small
+     * values at once without queueing a task for each of them
+     *
+     * @param suppliers The suppliers to run on the main thread
+     * @return The future completed with the results in the same order as the suppliers, or exceptionally if any
+     * supplier fails
+     * @param <T> The result type
+     */
+    public static <T> CompletableFuture<List<T>> callSync(Collection<? extends Supplier<? extends T>> suppliers) {
+        List<Supplier<? extends T>> tasks = Lists.newArrayList(suppliers);
+
+        return callSync(() -> {
+            List<T> results = Lists.newArrayListWithCapacity(tasks.size());
+
+            for (Supplier<? extends T> task : tasks) {
+                results.add(task.get());
+            }
+
+            return results;
+        });
+    }
+
+    /**
+     *
+     * Gets the listener running the sync tasks, i.e. to change the tick budget
+     *
+     * @return The listener
+     */
+    public static ServerTickListener getTickListener() {
+        return TICK_LISTENER;
     }
 
 
@@ -37,47 +125,66 @@ public class UtilForgeConcurrency {
      * @param delay the delay in ticks
      */
     public static void runLater(Runnable runnable, int delay) {
-        TICK_LISTENER.addTask(() -> processRunLater(runnable, delay));
+        scheduleLater(runnable, delay);
     }
 
-    private static void processRunLater(Runnable runnable, int delay) {
-        if (delay >= 0) {
-            int finalDelay = delay - 1;
-            TICK_LISTENER.addTask(() -> processRunLater(runnable, finalDelay));
-            return;
-        }
-
-        TICK_LISTENER.addTask(runnable);
+    /**
+     *
+     * Same as {@link UtilForgeConcurrency#runLater(Runnable, int)} but returns a handle for the task
+     *
+     * @param runnable The runnable to be run on the main thread
+     * @param delay the delay in ticks
+     * @return The handle that can be used to cancel the task
+     */
+    public static ScheduledTask scheduleLater(Runnable runnable, int delay) {
+        return TICK_LISTENER.schedule(TickProfiler.wrap(runnable), delay);
     }
 
     /**
      *
-     * Executes the runnable task the tick after the predicate returns true
+     * Executes the runnable task on the first tick, after the delay, that the predicate returns true
      *
      * @param predicate The predicate to use
+     * @param delay The delay in ticks before the predicate is first checked
      * @param runnable The runnable to execute
      */
     public static void runLaterWhenTrue(Predicate<Runnable> predicate, int delay, Runnable runnable) {
-        runLater(() -> attemptRun(predicate, runnable), delay);
+        scheduleLaterWhenTrue(predicate, delay, runnable);
     }
 
     /**
      *
-     * Executes the runnable task the tick after the predicate returns true
+     * Same as {@link UtilForgeConcurrency#runLaterWhenTrue(Predicate, int, Runnable)} but returns a handle for the task
      *
      * @param predicate The predicate to use
+     * @param delay The delay in ticks before the predicate is first checked
      * @param runnable The runnable to execute
+     * @return The handle that can be used to cancel the task
      */
-    public static void runWhenTrue(Predicate<Runnable> predicate, Runnable runnable) {
-        TICK_LISTENER.addTask(() -> attemptRun(predicate, runnable));
+    public static ScheduledTask scheduleLaterWhenTrue(Predicate<Runnable> predicate, int delay, Runnable runnable) {
+        return TICK_LISTENER.scheduleWhenTrue(predicate, delay, TickProfiler.wrap(runnable));
     }
 
-    private static void attemptRun(Predicate<Runnable> predicate, Runnable runnable) {
-        if (!predicate.test(runnable)) {
-            TICK_LISTENER.addTask(() -> attemptRun(predicate, runnable));
-            return;
-        }
+    /**
+     *
+     * Executes the runnable task on the first tick that the predicate returns true
+     *
+     * @param predicate The predicate to use
+     * @param runnable The runnable to execute
+     */
+    public static void runWhenTrue(Predicate<Runnable> predicate, Runnable runnable) {
+        scheduleWhenTrue(predicate, runnable);
+    }
 
-        TICK_LISTENER.addTask(runnable);
+    /**
+     *
+     * Same as {@link UtilForgeConcurrency#runWhenTrue(Predicate, Runnable)} but returns a handle for the task
+     *
+     * @param predicate The predicate to use
+     * @param runnable The runnable to execute
+     * @return The handle that can be used to cancel the task
+     */
+    public static ScheduledTask scheduleWhenTrue(Predicate<Runnable> predicate, Runnable runnable) {
+        return TICK_LISTENER.scheduleWhenTrue(predicate, 0, TickProfiler.wrap(runnable));
     }
 }
@@ -1,20 +1,39 @@
 package com.envyful.api.forge.concurrency.listener;
 
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.concurrency.timer.ConditionRegistry;
+import com.envyful.api.concurrency.timer.ScheduledTask;
+import com.envyful.api.concurrency.timer.TimingWheel;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 /**
  *
  * Simple listener class for running tasks on the minecraft thread.
+ * <br>
+ * Tasks are run in the order they were added. {@link TaskPriority#URGENT} tasks are all run at the start of the
+ * next tick, {@link TaskPriority#NORMAL} tasks are run until the tick budget (5ms by default) is used up and the
+ * rest are carried over to the following tick. Only tasks queued before the tick started are run, so tasks that
+ * queue more tasks cannot keep a tick running forever.
+ * <br>
+ * Delayed tasks wait in a tick based {@link TimingWheel} and are run on the tick they are due, conditional tasks are
+ * kept in a {@link ConditionRegistry} and all checked together once per tick.
  *
  */
 public class ServerTickListener {
 
-    private final Set<Runnable> tasks = ConcurrentHashMap.newKeySet();
+    private final Lane urgent = new Lane();
+    private final Lane normal = new Lane();
+    private final TimingWheel wheel = new TimingWheel(1024);
+    private final ConditionRegistry conditions = new ConditionRegistry();
+
+    private volatile long tickBudgetNanos = TimeUnit.MILLISECONDS.toNanos(5);
 
     @SubscribeEvent
     public void onServerTick(TickEvent.ServerTickEvent event) {
@@ -22,20 +41,134 @@ public class ServerTickListener {
             return;
         }
 
-        Iterator<Runnable> iterator = tasks.iterator();
+        long start = System.nanoTime();
+        int urgentTasks = this.urgent.size();
+        int normalTasks = this.normal.size();
+
+        this.wheel.advance(this::runTask);
+
+        if (!this.conditions.isEmpty()) {
+            this.conditions.sweep(this::runTask);
+        }
+
+        for (int i = 0; i < urgentTasks; i++) {
+            this.runTask(this.urgent.poll());
+        }
+
+        for (int i = 0; i < normalTasks; i++) {
+            if (i > 0 && (System.nanoTime() - start) >= this.tickBudgetNanos) {
+                break;
+            }
 
-        while (iterator.hasNext()) {
-            Runnable next = iterator.next();
-            next.run();
-            iterator.remove();
+            this.runTask(this.normal.poll());
         }
     }
 
+    private void runTask(Runnable task) {
+        if (task == null) {
+            return;
+        }
+
+        try {
+            task.run();
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error while running sync task", e));
+        }
+    }
+
+    /**
+     *
+     * Sets the time each tick can spend running {@link TaskPriority#NORMAL} tasks. At least one task is always run
+     * each tick so the queue keeps moving
+     *
+     * @param budget The budget
+     * @param timeUnit The unit of the budget
+     */
+    public void setTickBudget(long budget, TimeUnit timeUnit) {
+        this.tickBudgetNanos = timeUnit.toNanos(budget);
+    }
+
     public void addTask(Runnable runnable) {
-        this.tasks.add(runnable);
+        this.addTask(runnable, TaskPriority.NORMAL);
+    }
+
+    public void addTask(Runnable runnable, TaskPriority priority) {
+        if (priority == TaskPriority.URGENT) {
+            this.urgent.add(runnable);
+        } else {
+            this.normal.add(runnable);
+        }
+    }
+
+    /**
+     *
+     * Runs the task on the main thread once the given number of ticks have passed
+     *
+     * @param runnable The task
+     * @param delayTicks The number of ticks to wait, 0 runs it next tick
+     * @return The handle that can be used to cancel the task
+     */
+    public ScheduledTask schedule(Runnable runnable, long delayTicks) {
+        return this.wheel.schedule(runnable, delayTicks);
+    }
+
+    /**
+     *
+     * Runs the task on the main thread on the first tick, after the delay, that the predicate returns true
+     *
+     * @param predicate The condition to check each tick
+     * @param delayTicks The number of ticks to wait before first checking the condition
+     * @param runnable The task
+     * @return The handle that can be used to cancel the task
+     */
+    public ScheduledTask scheduleWhenTrue(Predicate<Runnable> predicate, long delayTicks, Runnable runnable) {
+        ConditionRegistry.ConditionalTask task = this.conditions.create(predicate, runnable);
+
+        if (delayTicks <= 0) {
+            task.register();
+        } else {
+            task.setDelay(this.wheel.schedule(task::register, delayTicks));
+        }
+
+        return task;
     }
 
     public boolean hasTask(Runnable runnable) {
-        return tasks.contains(runnable);
+        return this.urgent.tasks.contains(runnable) || this.normal.tasks.contains(runnable);
+    }
+
+    /**
+     *
+     * Gets the number of tasks waiting to be run
+     *
+     * @return The number of tasks
+     */
+    public int getPendingTasks() {
+        return this.urgent.size() + this.normal.size() + this.wheel.size() + this.conditions.size();
+    }
+
+    private static final class Lane {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Runnable runnable) {
+            this.tasks.add(runnable);
+            this.size.incrementAndGet();
+        }
+
+        Runnable poll() {
+            Runnable task = this.tasks.poll();
+
+            if (task != null) {
+                this.size.decrementAndGet();
+            }
+
+            return task;
+        }
+
+        int size() {
+            return this.size.get();
+        }
     }
 }
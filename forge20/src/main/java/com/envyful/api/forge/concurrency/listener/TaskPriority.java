@@ -0,0 +1,20 @@
+package com.envyful.api.forge.concurrency.listener;
+
+/**
+ *
+ * The lane a task is queued in on the {@link ServerTickListener}
+ *
+ */
+public enum TaskPriority {
+
+    /**
+     * Always run on the next tick, regardless of the tick budget. Use for short tasks the player is waiting on
+     */
+    URGENT,
+
+    /**
+     * Run in submission order while there is time left in the tick budget, otherwise carried over to the next tick
+     */
+    NORMAL,
+
+}
@@ -0,0 +1,259 @@
+package com.envyful.api.forge.concurrency.profiler;
+
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.concurrency.metrics.LatencyHistogram;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Opt-in profiler for tasks run on the main thread through
+ * {@link com.envyful.api.forge.concurrency.UtilForgeConcurrency}. While enabled, each task is tagged with where it was
+ * submitted from and timed when it runs. Timings are kept per tag over a rolling window (one minute by default) and
+ * any task slower than the threshold is logged with its tag.
+ * <br>
+ * Enable using {@link TickProfiler#enable()}, the <code>envyapi.profiler</code> system property, or
+ * {@link TickProfilerCommand}
+ *
+ */
+public class TickProfiler {
+
+    private static final Map<String, Source> SOURCES = Maps.newConcurrentMap();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static volatile boolean enabled = Boolean.getBoolean("envyapi.profiler");
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private static volatile long windowNanos = TimeUnit.MINUTES.toNanos(1);
+
+    private TickProfiler() {
+        throw new UnsupportedOperationException("Static utility class");
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     *
+     * Sets how long a task can take before it is logged
+     *
+     * @param threshold The threshold
+     * @param timeUnit The unit of the threshold
+     */
+    public static void setThreshold(long threshold, TimeUnit timeUnit) {
+        thresholdNanos = timeUnit.toNanos(threshold);
+    }
+
+    public static long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     *
+     * Sets the length of the rolling window timings are kept for
+     *
+     * @param window The window length
+     * @param timeUnit The unit of the window
+     */
+    public static void setWindow(long window, TimeUnit timeUnit) {
+        windowNanos = timeUnit.toNanos(window);
+    }
+
+    /**
+     *
+     * Removes all recorded timings
+     *
+     */
+    public static void reset() {
+        SOURCES.clear();
+    }
+
+    /**
+     *
+     * Tags the task with the first class outside EnvyAPI that submitted it.
+     * Returns the task unchanged while the profiler is disabled
+     *
+     * @param task The task
+     * @return The task to queue
+     */
+    public static Runnable wrap(Runnable task) {
+        if (!enabled || task instanceof ProfiledTask) {
+            return task;
+        }
+
+        return new ProfiledTask(getCallerTag(), task);
+    }
+
+    /**
+     *
+     * Tags the task with the given tag. Returns the task unchanged while the profiler is disabled
+     *
+     * @param tag The tag to record the task under
+     * @param task The task
+     * @return The task to queue
+     */
+    public static Runnable wrap(String tag, Runnable task) {
+        if (!enabled || task instanceof ProfiledTask) {
+            return task;
+        }
+
+        return new ProfiledTask(tag, task);
+    }
+
+    /**
+     *
+     * Finds the first stack frame outside EnvyAPI, i.e. the plugin code submitting a task
+     *
+     * @return The tag in the format class#method:line
+     */
+    public static String getCallerTag() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith("com.envyful.api."))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "#" + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    /**
+     *
+     * Gets the timings for every tag, slowest total time first
+     *
+     * @return The timings
+     */
+    public static List<SourceSnapshot> snapshot() {
+        List<SourceSnapshot> snapshots = Lists.newArrayList();
+
+        for (Source source : SOURCES.values()) {
+            snapshots.add(source.snapshot());
+        }
+
+        snapshots.sort(Comparator.comparingDouble(
+                (SourceSnapshot snapshot) -> snapshot.getTimings().getMeanMillis() * snapshot.getTimings().getCount())
+                .reversed());
+        return snapshots;
+    }
+
+    /**
+     *
+     * Gets the timings for a single tag
+     *
+     * @param tag The tag
+     * @return The timings, if the tag has been recorded
+     */
+    public static Optional<SourceSnapshot> snapshot(String tag) {
+        return Optional.ofNullable(SOURCES.get(tag)).map(Source::snapshot);
+    }
+
+    static void record(String tag, long nanos) {
+        SOURCES.computeIfAbsent(tag, Source::new).record(nanos);
+
+        if (nanos >= thresholdNanos) {
+            UtilLogger.logger().ifPresent(logger -> logger.warn("Main thread task from {} took {}ms",
+                    tag, String.format("%.2f", nanos / 1_000_000.0)));
+        }
+    }
+
+    private static final class ProfiledTask implements Runnable {
+
+        private final String tag;
+        private final Runnable task;
+
+        private ProfiledTask(String tag, Runnable task) {
+            this.tag = tag;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+
+            try {
+                this.task.run();
+            } finally {
+                record(this.tag, System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     *
+     * Timings for a single tag. The histogram is swapped out at the end of each window, keeping the completed
+     * window so the reported percentiles never cover less than a full window
+     *
+     */
+    private static final class Source {
+
+        private final String tag;
+        private final LatencyHistogram current = new LatencyHistogram();
+
+        private volatile LatencyHistogram.Snapshot previous = null;
+        private volatile long windowStart = System.nanoTime();
+
+        private Source(String tag) {
+            this.tag = tag;
+        }
+
+        void record(long nanos) {
+            long now = System.nanoTime();
+
+            if (now - this.windowStart >= windowNanos) {
+                this.previous = this.current.snapshot();
+                this.current.reset();
+                this.windowStart = now;
+            }
+
+            this.current.record(nanos);
+        }
+
+        SourceSnapshot snapshot() {
+            LatencyHistogram.Snapshot previous = this.previous;
+
+            if (previous == null || System.nanoTime() - this.windowStart >= windowNanos) {
+                return new SourceSnapshot(this.tag, this.current.snapshot());
+            }
+
+            return new SourceSnapshot(this.tag, previous);
+        }
+    }
+
+    public static final class SourceSnapshot {
+
+        private final String tag;
+        private final LatencyHistogram.Snapshot timings;
+
+        private SourceSnapshot(String tag, LatencyHistogram.Snapshot timings) {
+            this.tag = tag;
+            this.timings = timings;
+        }
+
+        public String getTag() {
+            return this.tag;
+        }
+
+        public LatencyHistogram.Snapshot getTimings() {
+            return this.timings;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s count=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                    this.tag, this.timings.getCount(), this.timings.getMeanMillis(),
+                    this.timings.getPercentileMillis(50), this.timings.getPercentileMillis(95),
+                    this.timings.getPercentileMillis(99), this.timings.getMaxMillis());
+        }
+    }
+}
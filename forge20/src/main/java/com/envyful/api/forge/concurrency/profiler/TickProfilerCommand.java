@@ -0,0 +1,101 @@
+package com.envyful.api.forge.concurrency.profiler;
+
+import com.envyful.api.command.annotate.Command;
+import com.envyful.api.command.annotate.description.Description;
+import com.envyful.api.command.annotate.executor.CommandProcessor;
+import com.envyful.api.command.annotate.executor.Sender;
+import com.envyful.api.command.annotate.permission.Permissible;
+import com.envyful.api.forge.chat.UtilChatColour;
+import net.minecraft.commands.CommandSource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Admin command for the {@link TickProfiler}. Not registered by default, plugins wanting it should register it with
+ * their {@link com.envyful.api.forge.command.ForgeCommandFactory}.
+ * <br>
+ * Usage: /tickprofiler [enable|disable|reset|threshold &lt;ms&gt;|top [amount]]
+ *
+ */
+@Command({"tickprofiler", "envyprofiler"})
+@Permissible("envyapi.command.tickprofiler")
+@Description({"&e/tickprofiler [enable|disable|reset|threshold <ms>|top [amount]]",
+        "&7Shows the slowest main thread task sources"})
+public class TickProfilerCommand {
+
+    private static final int DEFAULT_ENTRIES = 10;
+
+    @CommandProcessor
+    public void onCommand(@Sender CommandSource sender, String[] args) {
+        String action = args.length == 0 ? "top" : args[0].toLowerCase();
+
+        switch (action) {
+            case "enable":
+                TickProfiler.enable();
+                sender.sendSystemMessage(UtilChatColour.colour("&a&l(!) &aTick profiler enabled"));
+                break;
+            case "disable":
+                TickProfiler.disable();
+                sender.sendSystemMessage(UtilChatColour.colour("&c&l(!) &cTick profiler disabled"));
+                break;
+            case "reset":
+                TickProfiler.reset();
+                sender.sendSystemMessage(UtilChatColour.colour("&a&l(!) &aTick profiler timings reset"));
+                break;
+            case "threshold":
+                this.setThreshold(sender, args);
+                break;
+            default:
+                this.showTop(sender, args);
+                break;
+        }
+    }
+
+    private void setThreshold(CommandSource sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendSystemMessage(UtilChatColour.colour("&c&l(!) &cCurrent threshold is "
+                    + TickProfiler.getThresholdMillis() + "ms"));
+            return;
+        }
+
+        try {
+            TickProfiler.setThreshold(Long.parseLong(args[1]), TimeUnit.MILLISECONDS);
+            sender.sendSystemMessage(UtilChatColour.colour("&a&l(!) &aTasks slower than " + args[1]
+                    + "ms will now be logged"));
+        } catch (NumberFormatException e) {
+            sender.sendSystemMessage(UtilChatColour.colour("&c&l(!) &cInvalid number " + args[1]));
+        }
+    }
+
+    private void showTop(CommandSource sender, String[] args) {
+        int entries = DEFAULT_ENTRIES;
+
+        if (args.length >= 2) {
+            try {
+                entries = Math.max(1, Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                sender.sendSystemMessage(UtilChatColour.colour("&c&l(!) &cInvalid number " + args[1]));
+                return;
+            }
+        }
+
+        if (!TickProfiler.isEnabled()) {
+            sender.sendSystemMessage(UtilChatColour.colour("&c&l(!) &cTick profiler is disabled, use /tickprofiler enable"));
+        }
+
+        List<TickProfiler.SourceSnapshot> snapshots = TickProfiler.snapshot();
+
+        if (snapshots.isEmpty()) {
+            sender.sendSystemMessage(UtilChatColour.colour("&7No main thread tasks recorded"));
+            return;
+        }
+
+        sender.sendSystemMessage(UtilChatColour.colour("&e&lSlowest main thread task sources:"));
+
+        for (int i = 0; i < Math.min(entries, snapshots.size()); i++) {
+            sender.sendSystemMessage(UtilChatColour.colour("&7" + (i + 1) + ". &f" + snapshots.get(i)));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.envyful.api.forge.config;
+
+import com.envyful.api.config.type.ConfigInterface;
+import com.envyful.api.config.type.ConfigItem;
+import com.envyful.api.gui.factory.GuiFactory;
+import com.envyful.api.gui.item.Displayable;
+import com.envyful.api.gui.pane.Pane;
+import com.envyful.api.text.Placeholder;
+import com.google.common.collect.Lists;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * The background of a {@link ConfigInterface} compiled once per config load and shared by every GUI opened from it.
+ * <br>
+ * Filler items with no placeholders in them (see {@link UtilConfigItem#isStatic(ConfigItem)}) are rendered when the
+ * layout is compiled and each pane gets a copy of the rendered {@link ItemStack} in its own {@link Displayable}.
+ * Only the filler items with placeholders are rendered, through {@link UtilConfigItem}, every time a GUI is opened.
+ * Get layouts using {@link UtilConfigInterface#getLayout(ConfigInterface)} which keeps one per loaded config
+ *
+ */
+public final class ConfigInterfaceLayout {
+
+    private final int height;
+    private final List<FillerItem> fillItems;
+    private final FillerItem[] positionedItems;
+
+    private ConfigInterfaceLayout(int height, List<FillerItem> fillItems, FillerItem[] positionedItems) {
+        this.height = height;
+        this.fillItems = fillItems;
+        this.positionedItems = positionedItems;
+    }
+
+    /**
+     *
+     * Works out the enabled filler items of the config interface and their positions, rendering the ones without
+     * placeholders
+     *
+     * @param settings The config interface
+     * @return The layout
+     */
+    public static ConfigInterfaceLayout compile(ConfigInterface settings) {
+        List<ConfigItem> fillerItems = settings.getFillerItems();
+        List<FillerItem> fillItems = Lists.newArrayList();
+        FillerItem[] positionedItems = new FillerItem[fillerItems.size()];
+
+        for (int i = 0; i < fillerItems.size(); i++) {
+            ConfigItem configItem = fillerItems.get(i);
+
+            if (!configItem.isEnabled()) {
+                continue;
+            }
+
+            FillerItem fillerItem = new FillerItem(configItem,
+                    UtilConfigItem.isStatic(configItem) ? UtilConfigItem.fromConfigItem(configItem) : null);
+
+            fillItems.add(fillerItem);
+            positionedItems[i] = fillerItem;
+        }
+
+        return new ConfigInterfaceLayout(settings.getHeight(), Collections.unmodifiableList(fillItems), positionedItems);
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     *
+     * Adds the enabled filler items to the pane in order, matching
+     * {@link UtilConfigInterface#fillBackground(Pane, ConfigInterface, Placeholder...)}
+     *
+     * @param pane The pane
+     * @param placeholders The placeholders
+     */
+    public void fill(Pane pane, Placeholder... placeholders) {
+        List<Placeholder> placeholderList = Lists.newArrayList(placeholders);
+
+        for (FillerItem fillItem : this.fillItems) {
+            pane.add(fillItem.toDisplayable(placeholderList));
+        }
+    }
+
+    /**
+     *
+     * Sets each enabled filler item at its position, matching
+     * {@link UtilConfigInterface#setBackground(Pane, ConfigInterface, Placeholder...)}
+     *
+     * @param pane The pane
+     * @param placeholders The placeholders
+     */
+    public void set(Pane pane, Placeholder... placeholders) {
+        List<Placeholder> placeholderList = Lists.newArrayList(placeholders);
+
+        for (int position = 0; position < this.positionedItems.length; position++) {
+            FillerItem fillerItem = this.positionedItems[position];
+
+            if (fillerItem != null) {
+                pane.set(position % 9, position / 9, fillerItem.toDisplayable(placeholderList));
+            }
+        }
+    }
+
+    private static final class FillerItem {
+
+        private final ConfigItem configItem;
+        private final ItemStack rendered;
+
+        private FillerItem(ConfigItem configItem, ItemStack rendered) {
+            this.configItem = configItem;
+            this.rendered = rendered;
+        }
+
+        private Displayable toDisplayable(List<Placeholder> placeholders) {
+            if (this.rendered != null) {
+                return GuiFactory.displayable(this.rendered.copy());
+            }
+
+            return GuiFactory.displayable(UtilConfigItem.fromConfigItem(this.configItem, placeholders));
+        }
+    }
+}
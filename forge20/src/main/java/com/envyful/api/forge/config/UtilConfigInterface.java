@@ -1,8 +1,10 @@
 package com.envyful.api.forge.config;
 
+import com.envyful.api.concurrency.UtilConcurrency;
 import com.envyful.api.config.type.ConfigInterface;
 import com.envyful.api.config.type.ConfigItem;
 import com.envyful.api.config.type.PaginatedConfigInterface;
+import com.envyful.api.config.yaml.YamlConfigFactory;
 import com.envyful.api.forge.chat.UtilChatColour;
 import com.envyful.api.forge.gui.close.ForgeCloseConsumer;
 import com.envyful.api.forge.player.ForgeEnvyPlayer;
@@ -12,54 +14,122 @@ import com.envyful.api.gui.item.Displayable;
 import com.envyful.api.gui.pane.Pane;
 import com.envyful.api.math.TriConsumer;
 import com.envyful.api.text.Placeholder;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.minecraft.world.item.ItemStack;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
 
 public class UtilConfigInterface {
 
-    public static void fillBackground(Pane pane, ConfigInterface settings, Placeholder... transformers) {
-        for (ConfigItem fillerItem : settings.getFillerItems()) {
-            if (!fillerItem.isEnabled()) {
-                continue;
-            }
+    private static final Cache<ConfigInterface, ConfigInterfaceLayout> LAYOUTS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    static {
+        YamlConfigFactory.addLoadListener(LAYOUTS::invalidateAll);
+    }
 
-            pane.add(GuiFactory.displayable(UtilConfigItem.fromConfigItem(fillerItem, transformers)));
+    /**
+     *
+     * Gets the compiled layout for the config interface, compiling it the first time it's requested.
+     * Layouts are dropped when configs are reloaded
+     *
+     * @param settings The config interface
+     * @return The shared layout
+     */
+    public static ConfigInterfaceLayout getLayout(ConfigInterface settings) {
+        try {
+            return LAYOUTS.get(settings, () -> ConfigInterfaceLayout.compile(settings));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to compile config interface layout", e.getCause());
         }
     }
 
+    public static void fillBackground(Pane pane, ConfigInterface settings, Placeholder... transformers) {
+        getLayout(settings).fill(pane, transformers);
+    }
+
     public static void setBackground(
             Pane pane, ConfigInterface settings,
             Placeholder... transformers) {
-        int position = 0;
-
-        for (ConfigItem fillerItem : settings.getFillerItems()) {
-            if (!fillerItem.isEnabled()) {
-                ++position;
-                continue;
-            }
-
-            pane.set(position % 9, position / 9,
-                    GuiFactory.displayable(
-                            UtilConfigItem.fromConfigItem(
-                                    fillerItem, transformers
-                            )));
-            ++position;
-        }
+        getLayout(settings).set(pane, transformers);
     }
 
     public static <T> PaginatedBuilder<T> paginatedBuilder(List<T> items) {
         return new PaginatedBuilder<T>().items(items);
     }
 
+    /**
+     *
+     * Source of the items shown by a {@link PaginatedBuilder}. Only the items for the page being rendered are requested,
+     * so large collections don't have to be copied into a list up front
+     *
+     * @param <T> The type of item
+     */
+    public interface PageSource<T> {
+
+        /**
+         *
+         * Gets the total number of items
+         *
+         * @return The number of items
+         */
+        int size();
+
+        /**
+         *
+         * Gets the items for a page
+         *
+         * @param offset The index of the first item
+         * @param limit The maximum number of items to return
+         * @return The items
+         */
+        List<T> get(int offset, int limit);
+
+        static <T> PageSource<T> of(List<T> items) {
+            return of(items::size, (offset, limit) -> {
+                if (offset >= items.size()) {
+                    return Collections.emptyList();
+                }
+
+                return Lists.newArrayList(items.subList(offset, Math.min(items.size(), offset + limit)));
+            });
+        }
+
+        static <T> PageSource<T> of(IntSupplier size, BiFunction<Integer, Integer, List<T>> pageLoader) {
+            return new PageSource<>() {
+                @Override
+                public int size() {
+                    return size.getAsInt();
+                }
+
+                @Override
+                public List<T> get(int offset, int limit) {
+                    return pageLoader.apply(offset, limit);
+                }
+            };
+        }
+    }
+
     public static class PaginatedBuilder<T> {
 
         private PaginatedConfigInterface configInterface;
         private List<T> items = Lists.newArrayList();
+        private PageSource<T> source = null;
+        private boolean prefetchPages = false;
         private Function<T, ConfigItem> itemConfigItemConversion;
         private Function<T, Displayable> itemDisplayableConversion;
         private ForgePlayerManager playerManager;
@@ -86,6 +156,47 @@ public class UtilConfigInterface {
             return this;
         }
 
+        /**
+         *
+         * Uses the given source instead of the items list. Only the page being opened is requested from the source,
+         * and it is requested again every time a page is opened so changes to the source are always shown
+         *
+         * @param source The source
+         * @return The builder
+         */
+        public PaginatedBuilder<T> itemSource(PageSource<T> source) {
+            this.source = source;
+            return this;
+        }
+
+        /**
+         *
+         * Uses the given item count and page loader instead of the items list
+         *
+         * @param itemCount Supplies the total number of items
+         * @param pageLoader Loads the items for a page from the offset and limit given
+         * @return The builder
+         */
+        public PaginatedBuilder<T> itemSource(IntSupplier itemCount, BiFunction<Integer, Integer, List<T>> pageLoader) {
+            return this.itemSource(PageSource.of(itemCount, pageLoader));
+        }
+
+        /**
+         *
+         * Renders the item stacks of the pages either side of the open page in the background, ready for the page
+         * buttons. Only used with the items list and {@link #itemDisplayableConversion(Function)}, pages from an
+         * {@link #itemSource(PageSource)} or {@link #itemConversion(Function)} are always rendered on open.
+         * <br>
+         * The item conversions for prefetched pages are run on the async executor instead of the thread opening the
+         * GUI, so they must be safe to call from another thread
+         *
+         * @return The builder
+         */
+        public PaginatedBuilder<T> prefetchPages() {
+            this.prefetchPages = true;
+            return this;
+        }
+
         public PaginatedBuilder<T> itemDisplayableConversion(Function<T, ConfigItem> itemDisplayableConversion) {
             this.itemConfigItemConversion = itemDisplayableConversion;
             return this;
@@ -126,6 +237,12 @@ public class UtilConfigInterface {
         }
 
         public void open(ForgeEnvyPlayer player, int page, Placeholder... placeholders) {
+            this.open(new PageSession(player, placeholders), page);
+        }
+
+        private void open(PageSession session, int page) {
+            ForgeEnvyPlayer player = session.player;
+            Placeholder[] placeholders = session.placeholders;
             Pane pane = GuiFactory.paneBuilder()
                     .topLeftX(0)
                     .topLeftY(0)
@@ -135,37 +252,32 @@ public class UtilConfigInterface {
 
             UtilConfigInterface.fillBackground(pane, this.configInterface, placeholders);
 
-            int pages = this.items.size() / this.configInterface.getPositions().size();
+            int pages = this.getPages();
 
             if (this.shouldShowChangePageButtons(page, pages)) {
                 UtilConfigItem.builder()
                         .clickHandler((envyPlayer, clickType) -> {
                             if (this.configInterface.isLoopPages()) {
-                                open(player, page == pages ? 1 : page + 1, placeholders);
+                                open(session, page == pages ? 1 : page + 1);
                             }
                         }).extendedConfigItem(player, pane, this.configInterface.getNextPageButton(), placeholders);
 
                 UtilConfigItem.builder()
                         .clickHandler((envyPlayer, clickType) -> {
                             if (this.configInterface.isLoopPages()) {
-                                open(player, page == 1 ? pages : page - 1, placeholders);
+                                open(session, page == 1 ? pages : page - 1);
                             }
                         }).extendedConfigItem(player, pane, this.configInterface.getPreviousPageButton(), placeholders);
             }
 
-            for (int i = 0; i < this.configInterface.getPositions().size(); i++) {
-                int itemId = ((page - 1) * this.configInterface.getPositions().size()) + i;
-
-                if (itemId >= (this.items.size())) {
-                    continue;
-                }
+            List<Displayable> displayables = session.getPage(page);
 
+            for (int i = 0; i < Math.min(displayables.size(), this.configInterface.getPositions().size()); i++) {
                 int position = this.configInterface.getPositions().get(i);
                 int posX = position % 9;
                 int posY = position / 9;
-                T item = this.items.get(itemId);
 
-                pane.set(posX, posY, this.getDisplayable(player, item, placeholders));
+                pane.set(posX, posY, displayables.get(i));
             }
 
             for (BiConsumer<Pane, Integer> extraItem : this.extraItems) {
@@ -179,6 +291,26 @@ public class UtilConfigInterface {
                     .closeConsumer(this.closeConsumer)
                     .title(UtilChatColour.colour(this.configInterface.getTitle()))
                     .build().open(player);
+
+            session.prefetchNeighbours(page, pages);
+        }
+
+        private PageSource<T> getSource() {
+            if (this.source != null) {
+                return this.source;
+            }
+
+            return PageSource.of(this.items);
+        }
+
+        private int getPages() {
+            int perPage = this.configInterface.getPositions().size();
+
+            if (perPage == 0) {
+                return 1;
+            }
+
+            return Math.max(1, (this.getSource().size() + perPage - 1) / perPage);
         }
 
         private boolean shouldShowChangePageButtons(int page, int pages) {
@@ -189,19 +321,122 @@ public class UtilConfigInterface {
             return page == pages || page == 1;
         }
 
-        private Displayable getDisplayable(ForgeEnvyPlayer player, T item, Placeholder... placeholders) {
-            Displayable.Builder<?> displayable;
-
+        private Displayable getDisplayable(ForgeEnvyPlayer player, T item, ItemStack itemStack) {
             if (this.itemDisplayableConversion != null) {
                 return this.itemDisplayableConversion.apply(item);
             }
 
-            return GuiFactory.displayableBuilder(
-                            UtilConfigItem.fromConfigItem(this.itemConfigItemConversion.apply(item), placeholders))
+            return GuiFactory.displayableBuilder(itemStack == null ? null : itemStack.copy())
                     .singleClick()
                     .asyncClick()
                     .clickHandler((envyPlayer, clickType) -> this.pageItemClickHandler.execute(player, clickType, item))
                     .build();
         }
+
+        /**
+         *
+         * The pages rendered for a single player opening the GUI. When {@link #prefetchPages()} is set the item stacks
+         * of the open page and the pages either side of it are kept, with the neighbours rendered in the background.
+         * Otherwise every page is rendered on the calling thread when it is opened.
+         * <br>
+         * Only the item stacks are kept, the {@link Displayable}s are built again every time a page is opened as they
+         * hold the click state of the page they were opened on
+         *
+         */
+        private final class PageSession {
+
+            private final ForgeEnvyPlayer player;
+            private final Placeholder[] placeholders;
+            private final Map<Integer, CompletableFuture<RenderedPage>> pages = Maps.newConcurrentMap();
+
+            private PageSession(ForgeEnvyPlayer player, Placeholder[] placeholders) {
+                this.player = player;
+                this.placeholders = placeholders;
+            }
+
+            List<Displayable> getPage(int page) {
+                RenderedPage rendered = this.getRenderedPage(page);
+                List<Displayable> displayables = Lists.newArrayListWithCapacity(rendered.items.size());
+
+                for (int i = 0; i < rendered.items.size(); i++) {
+                    displayables.add(getDisplayable(this.player, rendered.items.get(i), rendered.itemStacks.get(i)));
+                }
+
+                return displayables;
+            }
+
+            void prefetchNeighbours(int page, int pages) {
+                if (!this.shouldPrefetch()) {
+                    return;
+                }
+
+                int next = page + 1;
+                int previous = page - 1;
+
+                if (configInterface.isLoopPages()) {
+                    next = page == pages ? 1 : next;
+                    previous = page == 1 ? pages : previous;
+                }
+
+                int finalNext = next;
+                int finalPrevious = previous;
+                this.pages.keySet().removeIf(key -> key != page && key != finalNext && key != finalPrevious);
+
+                this.prefetch(next, pages);
+                this.prefetch(previous, pages);
+            }
+
+            private boolean shouldPrefetch() {
+                return prefetchPages && source == null && itemDisplayableConversion == null;
+            }
+
+            private RenderedPage getRenderedPage(int page) {
+                if (!this.shouldPrefetch()) {
+                    return this.render(page);
+                }
+
+                CompletableFuture<RenderedPage> future = this.pages.get(page);
+                RenderedPage rendered = future == null ? null : future.join();
+
+                if (rendered == null) {
+                    rendered = this.render(page);
+                    this.pages.put(page, CompletableFuture.completedFuture(rendered));
+                }
+
+                return rendered;
+            }
+
+            private void prefetch(int page, int pages) {
+                if (page < 1 || page > pages) {
+                    return;
+                }
+
+                this.pages.computeIfAbsent(page, key -> UtilConcurrency.supplyAsync("gui:page-prefetch", () -> this.render(key)));
+            }
+
+            private RenderedPage render(int page) {
+                int perPage = configInterface.getPositions().size();
+                List<T> items = getSource().get((page - 1) * perPage, perPage);
+                List<ItemStack> itemStacks = Lists.newArrayListWithCapacity(items.size());
+
+                for (T item : items) {
+                    itemStacks.add(itemDisplayableConversion != null ? null :
+                            UtilConfigItem.fromConfigItem(itemConfigItemConversion.apply(item), this.placeholders));
+                }
+
+                return new RenderedPage(items, itemStacks);
+            }
+        }
+
+        private final class RenderedPage {
+
+            private final List<T> items;
+            private final List<ItemStack> itemStacks;
+
+            private RenderedPage(List<T> items, List<ItemStack> itemStacks) {
+                this.items = items;
+                this.itemStacks = itemStacks;
+            }
+        }
     }
 }
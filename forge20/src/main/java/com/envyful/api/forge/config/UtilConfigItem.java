@@ -3,6 +3,7 @@ package com.envyful.api.forge.config;
 import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.config.type.ConfigItem;
 import com.envyful.api.config.type.ExtendedConfigItem;
+import com.envyful.api.config.yaml.YamlConfigFactory;
 import com.envyful.api.forge.chat.UtilChatColour;
 import com.envyful.api.forge.items.ItemBuilder;
 import com.envyful.api.forge.items.ItemFlag;
@@ -13,6 +14,8 @@ import com.envyful.api.text.Placeholder;
 import com.envyful.api.text.PlaceholderFactory;
 import com.envyful.api.type.Pair;
 import com.envyful.api.type.UtilParse;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import net.minecraft.ResourceLocationException;
 import net.minecraft.core.registries.BuiltInRegistries;
@@ -24,12 +27,35 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.enchantment.Enchantment;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ *
+ * Utility class for turning config items into {@link ItemStack}s.
+ * <br>
+ * Rendered items are cached by the config item they came from and the text produced by applying the placeholders
+ * (local and global) to it, so an item that renders the same text for every player is only built once and copied
+ * after that. The cache is bounded and cleared whenever configs are loaded through {@link YamlConfigFactory}
+ *
+ */
 public class UtilConfigItem {
 
+    private static final int MAX_CACHED_ITEMS = 4096;
+
+    private static final Cache<RenderKey, ItemStack> RENDER_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ITEMS)
+            .build();
+
+    static {
+        YamlConfigFactory.addLoadListener(UtilConfigItem::invalidateCache);
+    }
+
     private UtilConfigItem() {
         throw new UnsupportedOperationException("Static utility class");
     }
@@ -71,11 +97,15 @@ public class UtilConfigItem {
     }
 
     public static ItemStack fromConfigItem(ExtendedConfigItem configItem, Placeholder... transformers) {
-        return fromConfigItem(configItem.asConfigItem(), Lists.newArrayList(transformers));
+        return fromConfigItem(configItem, Lists.newArrayList(transformers));
     }
 
     public static ItemStack fromConfigItem(ExtendedConfigItem configItem, List<Placeholder> transformers) {
-        return fromConfigItem(configItem.asConfigItem(), transformers);
+        if (!configItem.isEnabled()) {
+            return null;
+        }
+
+        return render(configItem, configItem.asConfigItem(), transformers);
     }
 
     public static ItemStack fromConfigItem(ConfigItem configItem, Placeholder... transformers) {
@@ -87,23 +117,111 @@ public class UtilConfigItem {
             return null;
         }
 
-        String name = configItem.getName();
+        return render(configItem, configItem, placeholders);
+    }
+
+    /**
+     *
+     * Checks if the config item renders the same no matter the placeholders given. That is when none of its text
+     * contains a placeholder token ('%') and its amount is a plain number
+     *
+     * @param configItem The config item
+     * @return True if the item can be rendered once and reused
+     */
+    public static boolean isStatic(ConfigItem configItem) {
+        List<String> text = Lists.newArrayList(configItem.getType(), configItem.getName());
 
+        text.addAll(configItem.getLore());
+        text.addAll(configItem.getFlags());
+
+        for (ConfigItem.EnchantData value : configItem.getEnchants().values()) {
+            text.add(value.getEnchant());
+            text.add(value.getLevel());
+        }
+
+        addNBTData(configItem.getNbt(), text);
+
+        for (String line : text) {
+            if (line != null && line.indexOf('%') != -1) {
+                return false;
+            }
+        }
+
+        return configItem.getAmount() > 0;
+    }
+
+    /**
+     *
+     * Removes every rendered item from the cache
+     *
+     */
+    public static void invalidateCache() {
+        RENDER_CACHE.invalidateAll();
+    }
+
+    private static ItemStack render(Object source, ConfigItem configItem, List<Placeholder> placeholders) {
+        ResolvedItem resolved = ResolvedItem.of(configItem, placeholders);
+        RenderKey key = new RenderKey(source, resolved);
+        ItemStack cached = RENDER_CACHE.getIfPresent(key);
+
+        if (cached != null) {
+            return cached.copy();
+        }
+
+        ItemStack itemStack = build(configItem, resolved);
+
+        if (itemStack != null) {
+            RENDER_CACHE.put(key, itemStack.copy());
+        }
+
+        return itemStack;
+    }
+
+    private static void addNBTData(Map<String, ConfigItem.NBTValue> nbt, List<String> nbtData) {
+        for (ConfigItem.NBTValue value : nbt.values()) {
+            if (value.getSubData() != null && (value.getType().equalsIgnoreCase("nbt")
+                    || value.getType().equalsIgnoreCase("list"))) {
+                addNBTData(value.getSubData(), nbtData);
+            } else {
+                nbtData.add(value.getData());
+            }
+        }
+    }
+
+    private static String resolve(String text, List<Placeholder> placeholders) {
+        return PlaceholderFactory.handlePlaceholders(Collections.singletonList(text), placeholders).get(0);
+    }
+
+    private static <T> List<T> map(List<String> text, Function<String, T> mapper) {
+        List<T> mapped = Lists.newArrayListWithCapacity(text.size());
+
+        for (String line : text) {
+            if (line != null) {
+                mapped.add(mapper.apply(line));
+            }
+        }
+
+        return mapped;
+    }
+
+    private static ItemStack build(ConfigItem configItem, ResolvedItem resolved) {
         ItemBuilder itemBuilder = new ItemBuilder()
-                .type(fromNameOrId(PlaceholderFactory.handlePlaceholders(configItem.getType(), placeholders).get(0)))
-                .amount(configItem.getAmount(placeholders));
+                .type(fromNameOrId(resolved.type.get(0)))
+                .amount(resolved.amount);
+
+        itemBuilder.lore(map(resolved.lore, UtilChatColour::colour));
+        itemBuilder.itemFlags(map(resolved.flags, s -> ItemFlag.valueOf(s.toUpperCase(Locale.ROOT))));
+        itemBuilder.name(map(resolved.name, UtilChatColour::colour).get(0));
 
-        itemBuilder.lore(PlaceholderFactory.handlePlaceholders(configItem.getLore(), UtilChatColour::colour, placeholders));
-        itemBuilder.itemFlags(PlaceholderFactory.handlePlaceholders(configItem.getFlags(), s -> ItemFlag.valueOf(s.toUpperCase(Locale.ROOT)), placeholders));
-        itemBuilder.name(PlaceholderFactory.handlePlaceholders(Collections.singletonList(name), UtilChatColour::colour, placeholders).get(0));
+        int enchantIndex = 0;
 
         for (ConfigItem.EnchantData value : configItem.getEnchants().values()) {
             String enchantName = value.getEnchant();
             String level = value.getLevel();
 
-            if (!placeholders.isEmpty()) {
-                enchantName = PlaceholderFactory.handlePlaceholders(Collections.singletonList(enchantName), placeholders).get(0);
-                level = PlaceholderFactory.handlePlaceholders(Collections.singletonList(level), placeholders).get(0);
+            if (resolved.enchants != null) {
+                enchantName = resolved.enchants.get(enchantIndex++);
+                level = resolved.enchants.get(enchantIndex++);
             }
 
             Enchantment enchantment = BuiltInRegistries.ENCHANTMENT.get(new ResourceLocation(enchantName.toLowerCase()));
@@ -116,8 +234,15 @@ public class UtilConfigItem {
             itemBuilder.enchant(enchantment, parsedLevel);
         }
 
+        UnaryOperator<String> nbtResolver = UnaryOperator.identity();
+
+        if (resolved.nbt != null) {
+            Iterator<String> resolvedNbt = resolved.nbt.iterator();
+            nbtResolver = data -> resolvedNbt.next();
+        }
+
         for (Map.Entry<String, ConfigItem.NBTValue> nbtData : configItem.getNbt().entrySet()) {
-            Pair<String, Tag> parsed = parseNBT(nbtData, placeholders);
+            Pair<String, Tag> parsed = parseNBT(nbtData, nbtResolver);
 
             if (parsed != null) {
                 itemBuilder.nbt(parsed.getX(), parsed.getY());
@@ -128,11 +253,19 @@ public class UtilConfigItem {
     }
 
     public static Pair<String, Tag> parseNBT(Map.Entry<String, ConfigItem.NBTValue> nbtEntry, List<Placeholder> placeholders) {
+        if (placeholders.isEmpty()) {
+            return parseNBT(nbtEntry, UnaryOperator.identity());
+        }
+
+        return parseNBT(nbtEntry, data -> resolve(data, placeholders));
+    }
+
+    private static Pair<String, Tag> parseNBT(Map.Entry<String, ConfigItem.NBTValue> nbtEntry, UnaryOperator<String> resolver) {
         if (nbtEntry.getValue().getType().equalsIgnoreCase("nbt")) {
             CompoundTag compound = new CompoundTag();
 
             for (Map.Entry<String, ConfigItem.NBTValue> entry : nbtEntry.getValue().getSubData().entrySet()) {
-                Pair<String, Tag> parsed = parseNBT(entry, placeholders);
+                Pair<String, Tag> parsed = parseNBT(entry, resolver);
 
                 if (parsed != null) {
                     compound.put(parsed.getX(), parsed.getY());
@@ -146,7 +279,7 @@ public class UtilConfigItem {
             ListTag list = new ListTag();
 
             for (Map.Entry<String, ConfigItem.NBTValue> nbtValue : nbtEntry.getValue().getSubData().entrySet()) {
-                Pair<String, Tag> parsed = parseNBT(nbtValue, placeholders);
+                Pair<String, Tag> parsed = parseNBT(nbtValue, resolver);
 
                 if (parsed != null) {
                     CompoundTag compound = new CompoundTag();
@@ -158,19 +291,23 @@ public class UtilConfigItem {
             return Pair.of(nbtEntry.getKey(), list);
         }
 
-        return Pair.of(nbtEntry.getKey(), parseBasic(nbtEntry.getValue(), placeholders));
+        return Pair.of(nbtEntry.getKey(), parseBasic(nbtEntry.getValue().getType(), resolver.apply(nbtEntry.getValue().getData())));
     }
 
     public static Tag parseBasic(ConfigItem.NBTValue value, List<Placeholder> placeholders) {
         String data = value.getData();
 
         if (!placeholders.isEmpty()) {
-            data = PlaceholderFactory.handlePlaceholders(Collections.singletonList(data), placeholders).get(0);
+            data = resolve(data, placeholders);
         }
 
+        return parseBasic(value.getType(), data);
+    }
+
+    private static Tag parseBasic(String type, String data) {
         Tag base;
 
-        switch (value.getType().toLowerCase()) {
+        switch (type.toLowerCase()) {
             case "int":
             case "integer":
                 base = IntTag.valueOf(Integer.parseInt(data));
@@ -221,4 +358,118 @@ public class UtilConfigItem {
         }
     }
 
+    /**
+     *
+     * The text of a config item after applying the placeholders, used both as the cache fingerprint and to build the
+     * item so the placeholders are only applied once per render.
+     * Two renders of the same item with the same resolved text will always build the same {@link ItemStack}.
+     * Enchants and NBT only have local placeholders applied, so they are left out when there are none
+     *
+     */
+    private static final class ResolvedItem {
+
+        private final List<String> type;
+        private final List<String> name;
+        private final List<String> lore;
+        private final List<String> flags;
+        private final int amount;
+        private final List<String> enchants;
+        private final List<String> nbt;
+
+        private ResolvedItem(List<String> type, List<String> name, List<String> lore, List<String> flags, int amount,
+                             List<String> enchants, List<String> nbt) {
+            this.type = type;
+            this.name = name;
+            this.lore = lore;
+            this.flags = flags;
+            this.amount = amount;
+            this.enchants = enchants;
+            this.nbt = nbt;
+        }
+
+        private static ResolvedItem of(ConfigItem configItem, List<Placeholder> placeholders) {
+            List<String> enchants = null;
+            List<String> nbt = null;
+
+            if (!placeholders.isEmpty()) {
+                enchants = Lists.newArrayList();
+
+                for (ConfigItem.EnchantData value : configItem.getEnchants().values()) {
+                    enchants.add(resolve(value.getEnchant(), placeholders));
+                    enchants.add(resolve(value.getLevel(), placeholders));
+                }
+
+                List<String> nbtData = Lists.newArrayList();
+                addNBTData(configItem.getNbt(), nbtData);
+                nbt = Lists.newArrayListWithCapacity(nbtData.size());
+
+                for (String data : nbtData) {
+                    nbt.add(resolve(data, placeholders));
+                }
+            }
+
+            return new ResolvedItem(
+                    PlaceholderFactory.handlePlaceholders(configItem.getType(), placeholders),
+                    PlaceholderFactory.handlePlaceholders(configItem.getName(), placeholders),
+                    PlaceholderFactory.handlePlaceholders(configItem.getLore(), placeholders),
+                    PlaceholderFactory.handlePlaceholders(configItem.getFlags(), placeholders),
+                    configItem.getAmount(placeholders),
+                    enchants,
+                    nbt
+            );
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof ResolvedItem)) {
+                return false;
+            }
+
+            ResolvedItem that = (ResolvedItem) o;
+            return this.amount == that.amount && this.type.equals(that.type) && this.name.equals(that.name)
+                    && this.lore.equals(that.lore) && this.flags.equals(that.flags)
+                    && Objects.equals(this.enchants, that.enchants) && Objects.equals(this.nbt, that.nbt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.type, this.name, this.lore, this.flags, this.amount, this.enchants, this.nbt);
+        }
+    }
+
+    private static final class RenderKey {
+
+        private final Object source;
+        private final ResolvedItem fingerprint;
+        private final int hash;
+
+        private RenderKey(Object source, ResolvedItem fingerprint) {
+            this.source = source;
+            this.fingerprint = fingerprint;
+            this.hash = 31 * System.identityHashCode(source) + fingerprint.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof RenderKey)) {
+                return false;
+            }
+
+            RenderKey renderKey = (RenderKey) o;
+            return this.source == renderKey.source && Objects.equals(this.fingerprint, renderKey.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
 }
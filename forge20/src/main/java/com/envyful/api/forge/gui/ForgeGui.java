@@ -25,12 +25,21 @@ import net.minecraft.world.inventory.MenuType;
 import net.minecraft.world.inventory.Slot;
 import net.minecraft.world.item.ItemStack;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *
  * Forge implementation of the {@link Gui} interface.
+ * <br>
+ * A GUI can be opened for any number of players. When built as shared ({@link ForgeGuiBuilder#shared()}) each tick
+ * works out the changed slots once for the GUI, rather than once per viewer, and sends the same items to every
+ * player viewing it. Intended for read-only displays watched by many players at once
+ * <br>
+ * Pane tick handlers run on the GUI ticker thread, but working out the changed slots and sending them always happens
+ * on the server thread, the same thread that handles clicks
  *
  */
 public class ForgeGui implements Gui {
@@ -41,13 +50,19 @@ public class ForgeGui implements Gui {
     private final ForgeCloseConsumer closeConsumer;
     private final ForgeSimplePane parentPane;
     private final ForgeSimplePane[] panes;
+    private final ForgeSimplePane[] tickingPanes;
     private final MenuType<?> containerType;
+    private final boolean shared;
 
     private final List<ForgeGuiContainer> containers = Lists.newCopyOnWriteArrayList();
+    private final AtomicBoolean sendQueued = new AtomicBoolean(false);
+
+    private ItemStack[] sharedSentItems = null;
 
     ForgeGui(Component title, int height, PlayerManager<ForgeEnvyPlayer, ServerPlayer> playerManager,
-             ForgeCloseConsumer closeConsumer, Pane... panes) {
+             ForgeCloseConsumer closeConsumer, boolean shared, Pane... panes) {
         this.title = title;
+        this.shared = shared;
         this.height = height;
         this.playerManager = playerManager;
         this.closeConsumer = closeConsumer;
@@ -64,6 +79,10 @@ public class ForgeGui implements Gui {
             ++i;
         }
 
+        this.tickingPanes = Arrays.stream(this.panes)
+                .filter(pane -> pane != null && pane.getTickHandler() != null)
+                .toArray(ForgeSimplePane[]::new);
+
         switch(height) {
             default: case 0: case 1: this.containerType = MenuType.GENERIC_9x1; break;
             case 2: this.containerType = MenuType.GENERIC_9x2; break;
@@ -86,13 +105,15 @@ public class ForgeGui implements Gui {
                 Objects.equals(parent.containerMenu.getType(), this.getContainerType())) {
             UtilForgeConcurrency.runSync(() -> {
                 if (parent.containerMenu instanceof ForgeGuiContainer) {
-                    ((ForgeGuiContainer)parent.containerMenu).gui.closeConsumer.handle((ForgeEnvyPlayer)player);
-                    this.containers.remove(((ForgeGuiContainer)parent.containerMenu));
+                    ForgeGuiContainer previous = (ForgeGuiContainer) parent.containerMenu;
+
+                    previous.gui.closeConsumer.handle((ForgeEnvyPlayer)player);
+                    previous.gui.removeContainer(previous);
                 }
 
                 parent.containerMenu = new ForgeGuiContainer(this, parent);
                 ((ForgeGuiContainer) parent.containerMenu).refreshPlayerContents();
-                this.containers.add(((ForgeGuiContainer) parent.containerMenu));
+                this.addContainer(((ForgeGuiContainer) parent.containerMenu));
             });
             return;
         }
@@ -107,25 +128,131 @@ public class ForgeGui implements Gui {
                 parent.containerCounter = 1;
                 parent.connection.send(new ClientboundOpenScreenPacket(parent.containerCounter, this.getContainerType(), title));
                 container.refreshPlayerContents();
-                this.containers.add(container);
+                this.addContainer(container);
                 ForgeGuiTracker.addGui(player, this);
             });
         });
     }
 
+    /**
+     *
+     * Ticks every pane with a tick handler once and then queues sending the changed slots to every player viewing
+     * the GUI on the server thread. Called by the GUI ticker in {@link ForgeGuiTracker} for GUIs with tick handlers
+     * only
+     *
+     */
     public void update() {
+        if (this.containers.isEmpty()) {
+            return;
+        }
+
+        for (ForgeSimplePane pane : this.tickingPanes) {
+            pane.getTickHandler().tick(pane);
+        }
+
+        if (!this.sendQueued.compareAndSet(false, true)) {
+            return;
+        }
+
+        UtilForgeConcurrency.runSync("gui:update", () -> {
+            this.sendQueued.set(false);
+            this.sendUpdates();
+        });
+    }
+
+    private void sendUpdates() {
+        if (this.shared) {
+            this.updateShared();
+            return;
+        }
+
         for (ForgeGuiContainer value : this.containers) {
-            boolean updated = false;
-            for (ForgeSimplePane pane : value.gui.panes) {
-                if (pane.getTickHandler() != null) {
-                    updated = true;
-                    pane.getTickHandler().tick(pane);
-                }
+            value.update(this.panes, true);
+        }
+    }
+
+    /**
+     *
+     * Compares the GUI slots against what was last sent once, then sends the changed items to every viewer
+     *
+     */
+    private void updateShared() {
+        ForgeGuiContainer first = null;
+
+        for (ForgeGuiContainer container : this.containers) {
+            container.updateSlots(this.panes);
+
+            if (first == null) {
+                first = container;
             }
+        }
 
-            if (updated) {
-                value.update(this.panes, false);
+        if (first == null) {
+            return;
+        }
+
+        int size = first.containerSize;
+
+        if (this.sharedSentItems == null || this.sharedSentItems.length != size) {
+            this.sharedSentItems = new ItemStack[size];
+        }
+
+        int[] changedSlots = new int[size];
+        ItemStack[] changedItems = new ItemStack[size];
+        int changed = 0;
+
+        for (int i = 0; i < size; i++) {
+            ItemStack current = first.getSlot(i).getItem();
+            ItemStack lastSent = this.sharedSentItems[i];
+
+            if (lastSent != null && ItemStack.matches(lastSent, current)) {
+                continue;
             }
+
+            ItemStack copy = current.copy();
+
+            this.sharedSentItems[i] = copy;
+            changedSlots[changed] = i;
+            changedItems[changed] = copy;
+            ++changed;
+        }
+
+        for (ForgeGuiContainer container : this.containers) {
+            container.sendSharedSlots(changedSlots, changedItems, changed);
+        }
+    }
+
+    public boolean hasTickHandlers() {
+        return this.tickingPanes.length > 0;
+    }
+
+    public boolean isShared() {
+        return this.shared;
+    }
+
+    /**
+     *
+     * Gets the number of players currently viewing the GUI
+     *
+     * @return The number of viewers
+     */
+    public int getViewerCount() {
+        return this.containers.size();
+    }
+
+    private void addContainer(ForgeGuiContainer container) {
+        this.containers.add(container);
+
+        if (this.hasTickHandlers()) {
+            ForgeGuiTracker.startTicking(this);
+        }
+    }
+
+    private void removeContainer(ForgeGuiContainer container) {
+        this.containers.remove(container);
+
+        if (this.containers.isEmpty()) {
+            ForgeGuiTracker.stopTicking(this);
         }
     }
 
@@ -135,15 +262,25 @@ public class ForgeGui implements Gui {
 
     /**
      *
-     * Forge container class for the GUI
+     * Forge container class for the GUI.
+     * <br>
+     * Remembers the last item sent to the client for every slot so refreshes only send
+     * {@link ClientboundContainerSetSlotPacket}s for the slots that changed. The whole container is only resent when
+     * the number of slots changes or a click may have changed slots the server cannot predict.
+     * <br>
+     * All slots are created once with the container. Updates only replace the cells whose pane slot has changed and
+     * the player inventory slots are reused for the container's lifetime.
+     * <br>
+     * The last sent items are only read and written on the server thread
      *
      */
     private final class ForgeGuiContainer extends AbstractContainerMenu {
 
         private ForgeGui gui;
         private final ServerPlayer player;
-        private final List<EmptySlot> emptySlots = Lists.newArrayList();
-        private final NonNullList<ItemStack> inventoryItemStacks = NonNullList.create();
+        private final int containerSize;
+
+        private ItemStack[] lastSentItems = null;
 
         private boolean closed = false;
         private boolean locked = false;
@@ -154,6 +291,19 @@ public class ForgeGui implements Gui {
 
             this.gui = gui;
             this.player = player;
+            this.containerSize = 9 * this.gui.height;
+
+            for (int i = 0; i < this.containerSize; i++) {
+                this.addSlot(new EmptySlot(this.gui.parentPane, i));
+            }
+
+            for (int i = 9; i < 36; i++) {
+                this.addSlot(new Slot(player.getInventory(), i, 0, 0));
+            }
+            // Sets the slots for the hotbar.
+            for (int i = 0; i < 9; i++) {
+                this.addSlot(new Slot(player.getInventory(), i, 0, 0));
+            }
 
             this.update(this.gui.panes, false);
         }
@@ -191,26 +341,18 @@ public class ForgeGui implements Gui {
 
             this.updating = true;
 
-            this.slots.clear();
-            this.inventoryItemStacks.clear();
-            boolean createEmptySlots = this.emptySlots.isEmpty();
-
-            if (!createEmptySlots) {
-                this.slots.addAll(this.emptySlots);
-            }
-
-            for (int i = 0; i < (9 * this.gui.height); i++) {
-                if (createEmptySlots) {
-                    EmptySlot emptySlot = new EmptySlot(this.gui.parentPane, i);
-
-                    this.addSlot(emptySlot);
+            try {
+                this.updateSlots(panes);
 
-                    this.emptySlots.add(emptySlot);
+                if (force || ForgeGuiTracker.requiresUpdate(this.player)) {
+                    this.refreshPlayerContents();
                 }
-
-                this.inventoryItemStacks.add(ItemStack.EMPTY);
+            } finally {
+                this.updating = false;
             }
+        }
 
+        private void updateSlots(ForgeSimplePane[] panes) {
             for (ForgeSimplePane pane : panes) {
                 if (pane == null) {
                     continue;
@@ -221,43 +363,14 @@ public class ForgeGui implements Gui {
 
                     for (int x = 0; x < row.length; x++) {
                         ForgeSimplePane.SimpleDisplayableSlot item = row[x];
-
                         int index = pane.updateIndex((9 * y) + x);
 
-                        this.slots.set(index, item);
-                        this.inventoryItemStacks.set(index, item.getItem());
+                        if (index < this.containerSize && this.slots.get(index) != item) {
+                            this.slots.set(index, item);
+                        }
                     }
                 }
             }
-
-            for (int i = 9; i < 36; i++) {
-                ItemStack itemStack = player.getInventory().items.get(i);
-                this.addSlot(new Slot(player.getInventory(), i, 0, 0), itemStack);
-            }
-            // Sets the slots for the hotbar.
-            for (int i = 0; i < 9; i++) {
-                ItemStack itemStack = player.getInventory().items.get(i);
-                this.addSlot(new Slot(player.getInventory(), i, 0, 0), itemStack);
-            }
-
-            if (force || ForgeGuiTracker.requiresUpdate(this.player)) {
-                this.refreshPlayerContents();
-            }
-
-            this.updating = false;
-        }
-
-        private Slot addSlot(Slot slotIn, ItemStack itemStack) {
-            super.addSlot(slotIn);
-            this.inventoryItemStacks.add(itemStack);
-            return slotIn;
-        }
-
-        @Override
-        protected Slot addSlot(Slot slotIn) {
-            super.addSlot(slotIn);
-            this.inventoryItemStacks.add(ItemStack.EMPTY);
-            return slotIn;
         }
 
         @Override
@@ -300,7 +413,14 @@ public class ForgeGui implements Gui {
                 return;
             }
 
-            this.refreshPlayerContents();
+            if (clickTypeIn == ClickType.PICKUP) {
+                this.invalidateSlot(slot);
+                this.refreshPlayerContents();
+            } else {
+                this.lastSentItems = null;
+                this.refreshPlayerContents();
+            }
+
             this.clearPlayerCursor();
 
             Displayable.ClickType clickType = this.convertClickType(dragType, clickTypeIn);
@@ -342,8 +462,83 @@ public class ForgeGui implements Gui {
 
         public void refreshPlayerContents() {
             ForgeGuiTracker.dequeueUpdate(this.player);
+
+            if (this.lastSentItems == null || this.lastSentItems.length != this.slots.size()) {
+                this.sendAllSlots();
+                return;
+            }
+
+            this.sendChangedSlots();
+        }
+
+        private void sendAllSlots() {
             this.player.containerMenu.broadcastChanges();
             this.player.initMenu(this);
+
+            this.lastSentItems = new ItemStack[this.slots.size()];
+
+            for (int i = 0; i < this.slots.size(); i++) {
+                this.lastSentItems[i] = this.slots.get(i).getItem().copy();
+            }
+        }
+
+        private void sendChangedSlots() {
+            this.sendChangedSlots(0);
+        }
+
+        private void sendChangedSlots(int from) {
+            for (int i = from; i < this.slots.size(); i++) {
+                ItemStack current = this.slots.get(i).getItem();
+                ItemStack lastSent = this.lastSentItems[i];
+
+                if (lastSent != null && ItemStack.matches(lastSent, current)) {
+                    continue;
+                }
+
+                this.sendSlot(i, current.copy());
+            }
+        }
+
+        /**
+         *
+         * Sends the GUI slot changes worked out by {@link ForgeGui#updateShared()}. The player's own inventory slots,
+         * and any GUI slots invalidated by a click, are still checked for this viewer
+         *
+         * @param changedSlots The changed slot indexes
+         * @param changedItems The copies of the changed items, shared between all viewers
+         * @param changed The number of changed slots
+         */
+        private void sendSharedSlots(int[] changedSlots, ItemStack[] changedItems, int changed) {
+            ForgeGuiTracker.dequeueUpdate(this.player);
+
+            if (this.lastSentItems == null || this.lastSentItems.length != this.slots.size()) {
+                this.sendAllSlots();
+                return;
+            }
+
+            for (int i = 0; i < changed; i++) {
+                this.sendSlot(changedSlots[i], changedItems[i]);
+            }
+
+            for (int i = 0; i < this.containerSize; i++) {
+                if (this.lastSentItems[i] == null) {
+                    this.sendSlot(i, this.slots.get(i).getItem().copy());
+                }
+            }
+
+            this.sendChangedSlots(this.containerSize);
+        }
+
+        private void sendSlot(int slot, ItemStack item) {
+            this.lastSentItems[slot] = item;
+            this.player.connection.send(new ClientboundContainerSetSlotPacket(
+                    this.containerId, this.incrementStateId(), slot, item));
+        }
+
+        private void invalidateSlot(int slot) {
+            if (this.lastSentItems != null && slot >= 0 && slot < this.lastSentItems.length) {
+                this.lastSentItems[slot] = null;
+            }
         }
 
         private void clearPlayerCursor() {
@@ -375,7 +570,7 @@ public class ForgeGui implements Gui {
 
             this.gui.closeConsumer.handle(player);
 
-            ForgeGui.this.containers.remove(this);
+            ForgeGui.this.removeContainer(this);
 
             sender.containerCounter = 0;
             sender.containerMenu = sender.inventoryMenu;
@@ -26,6 +26,7 @@ public class ForgeGuiBuilder implements Gui.Builder {
     private PlayerManager<ForgeEnvyPlayer, ServerPlayer> playerManager;
     private ForgeCloseConsumer closeConsumer =
             (ForgeCloseConsumer) GuiFactory.empty();
+    private boolean shared = false;
 
     private final List<Pane> panes = Lists.newArrayList();
 
@@ -68,6 +69,18 @@ public class ForgeGuiBuilder implements Gui.Builder {
         return this;
     }
 
+    /**
+     *
+     * Builds the GUI in shared mode, where slot changes are worked out once per tick and sent to every viewer.
+     * Use for read-only displays opened for many players at once
+     *
+     * @return The builder
+     */
+    public ForgeGuiBuilder shared() {
+        this.shared = true;
+        return this;
+    }
+
     @Override
     public Gui build() {
         if (this.playerManager == null) {
@@ -78,7 +91,7 @@ public class ForgeGuiBuilder implements Gui.Builder {
 
         return new ForgeGui(
                 this.title, this.height, this.playerManager,
-                this.closeConsumer, this.panes.toArray(new Pane[0])
+                this.closeConsumer, this.shared, this.panes.toArray(new Pane[0])
         );
     }
 }
@@ -1,10 +1,12 @@
 package com.envyful.api.forge.gui;
 
-import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.DefaultUncaughtExceptionHandler;
+import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.forge.listener.LazyListener;
 import com.envyful.api.player.EnvyPlayer;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -12,16 +14,29 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  *
  * A class to track all open {@link ForgeGui}s and update them every tick (to update any changed items after player clicks)
+ * <br>
+ * Only GUIs that are open and have a pane with a tick handler are ticked. Each server tick a single batch updating
+ * all of them is passed to a dedicated ticker thread, if the previous batch is still running the tick is skipped
  *
  */
 public class ForgeGuiTracker {
 
     private static final Map<UUID, ForgeGui> OPEN_GUIS = Maps.newConcurrentMap();
     private static final Set<UUID> REQUIRED_UPDATE = Sets.newConcurrentHashSet();
+    private static final Set<ForgeGui> TICKING_GUIS = Sets.newConcurrentHashSet();
+    private static final AtomicBoolean TICK_RUNNING = new AtomicBoolean(false);
+    private static final ExecutorService TICKER = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("envyware_gui_ticker")
+            .setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandler(UtilLogger.getLogger()))
+            .build());
 
     static {
         new ForgeGuiTickListener();
@@ -47,6 +62,14 @@ public class ForgeGuiTracker {
         OPEN_GUIS.remove(player.getUniqueId());
     }
 
+    static void startTicking(ForgeGui gui) {
+        TICKING_GUIS.add(gui);
+    }
+
+    static void stopTicking(ForgeGui gui) {
+        TICKING_GUIS.remove(gui);
+    }
+
     public static void enqueueUpdate(EnvyPlayer<?> player) {
         if (player == null) {
             return;
@@ -71,9 +94,25 @@ public class ForgeGuiTracker {
 
         @SubscribeEvent
         public void onServerTick(TickEvent.ServerTickEvent event) {
-            UtilConcurrency.runAsync(() -> {
-                for (ForgeGui value : OPEN_GUIS.values()) {
-                    value.update();
+            if (event.phase != TickEvent.Phase.END || TICKING_GUIS.isEmpty()) {
+                return;
+            }
+
+            if (!TICK_RUNNING.compareAndSet(false, true)) {
+                return;
+            }
+
+            TICKER.execute(() -> {
+                try {
+                    for (ForgeGui gui : TICKING_GUIS) {
+                        try {
+                            gui.update();
+                        } catch (Exception e) {
+                            UtilLogger.logger().ifPresent(logger -> logger.error("Error while ticking GUI", e));
+                        }
+                    }
+                } finally {
+                    TICK_RUNNING.set(false);
                 }
             });
         }
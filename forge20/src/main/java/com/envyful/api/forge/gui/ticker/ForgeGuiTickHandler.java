@@ -12,6 +12,7 @@ public class ForgeGuiTickHandler implements TickHandler {
     protected final int initialDelay;
     protected final int repeatDelay;
     protected final Consumer<Pane> handler;
+    protected final String profilerTag;
 
     protected int ticks = 0;
     protected int lastRun = -1;
@@ -21,6 +22,7 @@ public class ForgeGuiTickHandler implements TickHandler {
         this.initialDelay = initialDelay;
         this.repeatDelay = repeatDelay;
         this.handler = handler;
+        this.profilerTag = "gui-tick:" + this.getHandlerName();
     }
 
     @Override
@@ -36,10 +38,21 @@ public class ForgeGuiTickHandler implements TickHandler {
         if (this.async) {
             this.handler.accept(pane);
         } else {
-            UtilForgeConcurrency.runSync(() -> this.handler.accept(pane));
+            UtilForgeConcurrency.runSync(this.profilerTag, () -> this.handler.accept(pane));
         }
     }
 
+    private String getHandlerName() {
+        if (this.handler == null) {
+            return "unknown";
+        }
+
+        String name = this.handler.getClass().getName();
+        int lambdaIndex = name.indexOf("$$Lambda");
+
+        return lambdaIndex == -1 ? name : name.substring(0, lambdaIndex);
+    }
+
     private boolean shouldRun() {
         if (this.lastRun == -1) {
             if (this.initialDelay == 0) {
@@ -1,22 +1,28 @@
 package com.envyful.api.forge.player;
 
+import com.envyful.api.concurrency.KeyedSerialExecutor;
 import com.envyful.api.concurrency.UtilConcurrency;
 import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.forge.concurrency.UtilForgeConcurrency;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.player.attribute.PlayerAttribute;
 import com.envyful.api.player.attribute.data.PlayerAttributeData;
 import com.envyful.api.player.save.SaveManager;
+import com.envyful.api.player.save.WriteBehindSaveManager;
 import com.envyful.api.player.save.impl.EmptySaveManager;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.entity.player.PlayerNegotiationEvent;
 import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -29,19 +35,56 @@ import java.util.concurrent.TimeUnit;
  * automatically update the cache when player log in and out of the server.
  *
  * Simple instantiation as not enough arguments to warrant a builder class and
+ * <br>
+ * Online players are kept in concurrent maps indexed by UUID, username and lower case username so lookups from
+ * commands and async tasks don't have to scan every player. The indexes are updated on join, quit and respawn
+ * <br>
+ * Player data starts loading during the login handshake, keyed by the UUID of the player's profile, and the result
+ * is handed to the {@link ForgeEnvyPlayer} when they join. The attributes are only bound to the player once they have
+ * joined. Use {@link ForgeEnvyPlayer#awaitLoaded()} to wait for the data to be set
  */
 public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, ServerPlayer> {
 
-    private final Map<UUID, ForgeEnvyPlayer> cachedPlayers = Maps.newHashMap();
+    private final Map<UUID, ForgeEnvyPlayer> cachedPlayers = Maps.newConcurrentMap();
+    private final Map<UUID, String> indexedNames = Maps.newConcurrentMap();
+    private final Map<String, ForgeEnvyPlayer> playersByName = Maps.newConcurrentMap();
+    private final Map<String, ForgeEnvyPlayer> playersByLowerName = Maps.newConcurrentMap();
     private final List<PlayerAttributeData> attributeData = Lists.newArrayList();
+    private final KeyedSerialExecutor<UUID> playerTasks = new KeyedSerialExecutor<>("player:io");
+    private final Map<UUID, CompletableFuture<List<Attribute<?>>>> pendingLoads = Maps.newConcurrentMap();
+    private final StaggeredAutoSave autoSave;
 
     private SaveManager<ServerPlayer> saveManager = new EmptySaveManager<>(this);
 
     public ForgePlayerManager() {
-        MinecraftForge.EVENT_BUS.register(new PlayerListener(this));
+        PlayerListener listener = new PlayerListener(this);
+
+        this.autoSave = new StaggeredAutoSave(this, listener::savePlayer);
+        MinecraftForge.EVENT_BUS.register(listener);
         UsernameFactory.init();
     }
 
+    /**
+     *
+     * Sets how often online players are autosaved. Each player's save is spread evenly across the interval
+     *
+     * @param interval The interval
+     * @param timeUnit The unit of the interval
+     */
+    public void setAutoSaveInterval(long interval, TimeUnit timeUnit) {
+        this.autoSave.setInterval(interval, timeUnit);
+    }
+
+    /**
+     *
+     * Sets the maximum number of autosaves that can be running at once
+     *
+     * @param maxConcurrentSaves The maximum number of saves
+     */
+    public void setMaxConcurrentAutoSaves(int maxConcurrentSaves) {
+        this.autoSave.setMaxInFlight(maxConcurrentSaves);
+    }
+
     @Override
     public ForgeEnvyPlayer getPlayer(ServerPlayer player) {
         return this.getPlayer(player.getUUID());
@@ -54,24 +97,20 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
 
     @Override
     public ForgeEnvyPlayer getOnlinePlayer(String username) {
-        for (ForgeEnvyPlayer online : this.cachedPlayers.values()) {
-            if (online.getParent().getName().getString().equals(username)) {
-                return online;
-            }
+        if (username == null) {
+            return null;
         }
 
-        return null;
+        return this.playersByName.get(username);
     }
 
     @Override
     public ForgeEnvyPlayer getOnlinePlayerCaseInsensitive(String username) {
-        for (ForgeEnvyPlayer online : this.cachedPlayers.values()) {
-            if (online.getParent().getName().getString().equalsIgnoreCase(username)) {
-                return online;
-            }
+        if (username == null) {
+            return null;
         }
 
-        return null;
+        return this.playersByLowerName.get(username.toLowerCase(Locale.ROOT));
     }
 
     @Override
@@ -112,6 +151,63 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
         return this.saveManager.loadAttribute(attributeClass, id);
     }
 
+    /**
+     *
+     * Starts loading the player's data before they join, replacing any earlier load for them. The load is dropped
+     * after a minute if the player never joins
+     *
+     * @param uuid The UUID of the player
+     */
+    private void startLoad(UUID uuid) {
+        CompletableFuture<List<Attribute<?>>> load = this.playerTasks.compose(uuid, () -> this.saveManager.loadData(uuid));
+
+        this.pendingLoads.put(uuid, load);
+        UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.schedule(() -> this.pendingLoads.remove(uuid, load),
+                1, TimeUnit.MINUTES);
+    }
+
+    private void addPlayer(ForgeEnvyPlayer player) {
+        this.cachedPlayers.put(player.getUniqueId(), player);
+        this.indexName(player);
+    }
+
+    private ForgeEnvyPlayer removePlayer(UUID uuid) {
+        ForgeEnvyPlayer player = this.cachedPlayers.remove(uuid);
+        String name = this.indexedNames.remove(uuid);
+
+        if (player != null && name != null) {
+            this.playersByName.remove(name, player);
+            this.playersByLowerName.remove(name.toLowerCase(Locale.ROOT), player);
+        }
+
+        return player;
+    }
+
+    /**
+     *
+     * Updates the username indexes for the player, removing their previous name if it has changed.
+     * Only called on the server thread, the same thread players are added and removed on, so a player that has
+     * quit is never indexed again
+     *
+     * @param player The player
+     */
+    private void indexName(ForgeEnvyPlayer player) {
+        if (this.cachedPlayers.get(player.getUniqueId()) != player) {
+            return;
+        }
+
+        String name = player.getParent().getGameProfile().getName();
+        String previous = this.indexedNames.put(player.getUniqueId(), name);
+
+        if (previous != null && !previous.equals(name)) {
+            this.playersByName.remove(previous, player);
+            this.playersByLowerName.remove(previous.toLowerCase(Locale.ROOT), player);
+        }
+
+        this.playersByName.put(name, player);
+        this.playersByLowerName.put(name.toLowerCase(Locale.ROOT), player);
+    }
+
     private final class PlayerListener {
 
         private final ForgePlayerManager manager;
@@ -121,26 +217,50 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
             this.manager = manager;
         }
 
-        @SubscribeEvent(priority = EventPriority.LOWEST)
+        @SubscribeEvent
+        public void onPlayerNegotiation(PlayerNegotiationEvent event) {
+            if (event.getProfile() == null || event.getProfile().getId() == null) {
+                return;
+            }
+
+            this.manager.startLoad(event.getProfile().getId());
+        }
+
+        @SubscribeEvent(priority = EventPriority.HIGHEST)
         public void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
             ForgeEnvyPlayer player = new ForgeEnvyPlayer(this.manager.saveManager,
                     (ServerPlayer) event.getEntity());
-            this.manager.cachedPlayers.put(event.getEntity().getUUID(), player);
+            this.manager.addPlayer(player);
 
-            UtilConcurrency.runAsync(() -> {
-                this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
-                    for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
-                        Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
+            CompletableFuture<List<Attribute<?>>> load = this.manager.pendingLoads.remove(player.getUniqueId());
 
-                        if (attribute == null) {
-                            UtilLogger.logger().ifPresent(logger -> logger.error("Null attribute loaded for {}", attributeDatum.getAttributeClass().getName()));
-                            continue;
-                        }
+            if (load == null) {
+                load = this.manager.playerTasks.compose(player.getUniqueId(), () -> this.manager.saveManager.loadData(player));
+            }
+
+            player.setLoadTask(load.handle((attributes, throwable) -> {
+                if (throwable != null) {
+                    UtilLogger.logger().ifPresent(logger -> logger.error("Failed to load attributes for " + player.getUniqueId(), throwable));
+                    return null;
+                }
+
+                for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
+                    Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
 
-                        player.setAttribute(attribute);
+                    if (attribute == null) {
+                        UtilLogger.logger().ifPresent(logger -> logger.error("Null attribute loaded for {}", attributeDatum.getAttributeClass().getName()));
+                        continue;
                     }
-                });
-            });
+
+                    if (attribute instanceof PlayerAttribute) {
+                        ((PlayerAttribute) attribute).setParent(player);
+                    }
+
+                    player.setAttribute(attribute);
+                }
+
+                return null;
+            }));
         }
 
         private Attribute<?> findAttribute(PlayerAttributeData attributeDatum,
@@ -156,15 +276,19 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
 
         @SubscribeEvent(priority = EventPriority.LOWEST)
         public void onPlayerQuit(PlayerEvent.PlayerLoggedOutEvent event) {
-            ForgeEnvyPlayer player = this.manager.cachedPlayers.remove(event.getEntity().getUUID());
+            ForgeEnvyPlayer player = this.manager.removePlayer(event.getEntity().getUUID());
 
             if (player == null) {
                 return;
             }
 
-            UtilConcurrency.runAsync(() -> {
+            this.savePlayer(player);
+        }
+
+        private CompletableFuture<Void> savePlayer(ForgeEnvyPlayer player) {
+            return this.manager.playerTasks.execute(player.getUniqueId(), () -> {
                 for (Attribute<?> value : player.getAttributes()) {
-                    if (value != null) {
+                    if (value != null && value.isDirty()) {
                         this.manager.saveManager.saveData(player, value);
                     }
                 }
@@ -178,20 +302,11 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
             }
 
             this.lastSave = System.currentTimeMillis();
-
-            UtilConcurrency.runAsync(() -> {
-                for (ForgeEnvyPlayer onlinePlayer : this.manager.getOnlinePlayers()) {
-                    for (Attribute<?> value : onlinePlayer.getAttributes()) {
-                        if (value != null) {
-                            this.manager.saveManager.saveData(onlinePlayer, value);
-                        }
-                    }
-                }
-            });
+            this.manager.autoSave.startCycle(this.manager.getOnlinePlayers());
         }
 
         private boolean shouldSave() {
-            return this.lastSave == -1 || (System.currentTimeMillis() - this.lastSave) >= TimeUnit.MINUTES.toMillis(2);
+            return this.lastSave == -1 || (System.currentTimeMillis() - this.lastSave) >= this.manager.autoSave.getIntervalMillis();
         }
 
         @SubscribeEvent(priority = EventPriority.LOWEST)
@@ -199,21 +314,41 @@ public class ForgePlayerManager implements PlayerManager<ForgeEnvyPlayer, Server
             UtilConcurrency.runLater(() -> {
                 ForgeEnvyPlayer player = this.manager.cachedPlayers.get(event.getEntity().getUUID());
 
+                if (player == null) {
+                    return;
+                }
+
                 player.setParent((ServerPlayer) event.getEntity());
+                UtilForgeConcurrency.runSync(() -> this.manager.indexName(player));
             }, 5L);
         }
 
         @SubscribeEvent(priority = EventPriority.HIGHEST)
         public void onPreServerShutdown(ServerStoppingEvent event) {
-            UtilConcurrency.runAsync(() -> {
+            this.manager.autoSave.stop();
+
+            if (this.manager.saveManager instanceof WriteBehindSaveManager) {
+                WriteBehindSaveManager<ServerPlayer> writeBehind = (WriteBehindSaveManager<ServerPlayer>) this.manager.saveManager;
+
                 for (ForgeEnvyPlayer player : this.manager.cachedPlayers.values()) {
                     for (Attribute<?> value : player.getAttributes()) {
-                        if (value != null) {
-                            this.manager.saveManager.saveData(player, value);
+                        if (value != null && value.isDirty()) {
+                            writeBehind.saveData(player, value);
                         }
                     }
                 }
-            });
+
+                if (!writeBehind.drain(Duration.ofSeconds(30))) {
+                    UtilLogger.logger().ifPresent(logger -> logger.error("Failed to write {} queued saves before shutdown",
+                            writeBehind.getPendingSaves()));
+                }
+
+                return;
+            }
+
+            for (ForgeEnvyPlayer player : this.manager.cachedPlayers.values()) {
+                this.savePlayer(player);
+            }
         }
     }
 }
@@ -0,0 +1,167 @@
+package com.envyful.api.forge.player;
+
+import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
+import com.envyful.api.player.attribute.Attribute;
+import com.envyful.api.type.Pair;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ *
+ * Spreads the autosave of every online player evenly over the autosave interval instead of saving them all at once.
+ * <br>
+ * Each cycle queues the players with unsaved changes, most recently modified first, and starts one save every
+ * interval / players. No more than the maximum number of saves are in flight at once, players wait in the queue
+ * until a save finishes
+ *
+ */
+final class StaggeredAutoSave {
+
+    private static final long STEP_MILLIS = 250L;
+
+    private final ForgePlayerManager manager;
+    private final Function<ForgeEnvyPlayer, CompletableFuture<Void>> saver;
+    private final Deque<ForgeEnvyPlayer> queue = new ArrayDeque<>();
+    private final Set<UUID> queued = Sets.newHashSet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile long intervalMillis = TimeUnit.MINUTES.toMillis(2);
+    private volatile int maxInFlight = 4;
+
+    private long nextStart = 0L;
+    private long spacing = 0L;
+    private ScheduledFuture<?> task = null;
+
+    StaggeredAutoSave(ForgePlayerManager manager, Function<ForgeEnvyPlayer, CompletableFuture<Void>> saver) {
+        this.manager = manager;
+        this.saver = saver;
+    }
+
+    long getIntervalMillis() {
+        return this.intervalMillis;
+    }
+
+    void setInterval(long interval, TimeUnit timeUnit) {
+        this.intervalMillis = timeUnit.toMillis(interval);
+    }
+
+    void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     *
+     * Queues the players with unsaved changes, that aren't already waiting, and spreads the queue over the interval
+     *
+     * @param players The online players
+     */
+    synchronized void startCycle(Collection<ForgeEnvyPlayer> players) {
+        List<Pair<ForgeEnvyPlayer, Long>> toSave = Lists.newArrayList();
+
+        for (ForgeEnvyPlayer player : players) {
+            if (this.queued.contains(player.getUniqueId())) {
+                continue;
+            }
+
+            long lastModified = getLastModified(player);
+
+            if (lastModified != -1L) {
+                toSave.add(Pair.of(player, lastModified));
+            }
+        }
+
+        toSave.sort(Comparator.comparingLong((Pair<ForgeEnvyPlayer, Long> pair) -> pair.getY()).reversed());
+
+        for (Pair<ForgeEnvyPlayer, Long> pair : toSave) {
+            this.queue.add(pair.getX());
+            this.queued.add(pair.getX().getUniqueId());
+        }
+
+        if (this.queue.isEmpty()) {
+            return;
+        }
+
+        this.spacing = this.intervalMillis / this.queue.size();
+        this.nextStart = System.currentTimeMillis();
+
+        if (this.task == null) {
+            this.task = UtilConcurrency.SCHEDULED_EXECUTOR_SERVICE.scheduleWithFixedDelay(this::step,
+                    0L, STEP_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     *
+     * Clears the queue, used when the server is stopping and every player is saved anyway
+     *
+     */
+    synchronized void stop() {
+        this.queue.clear();
+        this.queued.clear();
+
+        if (this.task != null) {
+            this.task.cancel(false);
+            this.task = null;
+        }
+    }
+
+    private synchronized void step() {
+        try {
+            long now = System.currentTimeMillis();
+
+            while (!this.queue.isEmpty() && this.nextStart <= now && this.inFlight.get() < this.maxInFlight) {
+                ForgeEnvyPlayer player = this.queue.poll();
+
+                this.queued.remove(player.getUniqueId());
+                this.nextStart += this.spacing;
+
+                if (this.manager.getPlayer(player.getUniqueId()) != player) {
+                    continue;
+                }
+
+                this.inFlight.incrementAndGet();
+                this.saver.apply(player).whenComplete((unused, throwable) -> this.inFlight.decrementAndGet());
+            }
+        } catch (Exception e) {
+            UtilLogger.logger().ifPresent(logger -> logger.error("Error during staggered autosave", e));
+        }
+
+        if (this.queue.isEmpty() && this.task != null) {
+            this.task.cancel(false);
+            this.task = null;
+        }
+    }
+
+    /**
+     *
+     * Gets the latest modification time of the player's dirty attributes
+     *
+     * @param player The player
+     * @return The modification time, 0 if unknown, or -1 if there is nothing to save
+     */
+    private static long getLastModified(ForgeEnvyPlayer player) {
+        long lastModified = -1L;
+
+        for (Attribute<?> attribute : player.getAttributes()) {
+            if (attribute != null && attribute.isDirty()) {
+                lastModified = Math.max(lastModified, attribute.getLastModified());
+            }
+        }
+
+        return lastModified;
+    }
+}
@@ -126,25 +126,26 @@ public class SpigotPlayerManager implements PlayerManager<SpigotEnvyPlayer, Play
             SpigotEnvyPlayer player = new SpigotEnvyPlayer(this.manager.saveManager,event.getUniqueId());
             this.manager.cachedPlayers.put(event.getUniqueId(), player);
 
-            UtilConcurrency.runAsync(() -> {
-                this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
-                    if (throwable != null) {
-                        UtilLogger.logger().ifPresent(logger -> logger.error("Error loading data for " + player.getUniqueId() + " " + player.getName(), throwable));
-                        return;
-                    }
-
-                    for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
-                        Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
-
-                        if (attribute == null) {
-                            UtilLogger.logger().ifPresent(logger -> logger.error("Null attribute loaded for {}", attributeDatum.getAttributeClass().getName()));
-                            continue;
+            player.setLoadTask(CompletableFuture.supplyAsync(() -> this.manager.saveManager.loadData(player),
+                            UtilConcurrency.getExecutor())
+                    .thenCompose(loading -> loading)
+                    .whenComplete((attributes, throwable) -> {
+                        if (throwable != null) {
+                            UtilLogger.logger().ifPresent(logger -> logger.error("Error loading data for " + player.getUniqueId() + " " + player.getName(), throwable));
+                            return;
                         }
 
-                        player.setAttribute(attribute);
-                    }
-                });
-            });
+                        for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
+                            Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
+
+                            if (attribute == null) {
+                                UtilLogger.logger().ifPresent(logger -> logger.error("Null attribute loaded for {}", attributeDatum.getAttributeClass().getName()));
+                                continue;
+                            }
+
+                            player.setAttribute(attribute);
+                        }
+                    }));
         }
 
         private Attribute<?> findAttribute(PlayerAttributeData attributeDatum,
@@ -1,6 +1,7 @@
 package com.envyful.api.velocity.player;
 
 import com.envyful.api.concurrency.UtilConcurrency;
+import com.envyful.api.concurrency.UtilLogger;
 import com.envyful.api.player.PlayerManager;
 import com.envyful.api.player.attribute.Attribute;
 import com.envyful.api.player.attribute.data.PlayerAttributeData;
@@ -125,19 +126,25 @@ public class VelocityPlayerManager implements PlayerManager<VelocityEnvyPlayer,
             player.setParent(event.getPlayer());
             this.manager.cachedPlayers.put(event.getPlayer().getUniqueId(), player);
 
-            UtilConcurrency.runAsync(() -> {
-                this.manager.saveManager.loadData(player).whenComplete((attributes, throwable) -> {
-                    for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
-                        Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
-
-                        if (attribute == null) {
-                            continue;
+            player.setLoadTask(CompletableFuture.supplyAsync(() -> this.manager.saveManager.loadData(player),
+                            UtilConcurrency.getExecutor())
+                    .thenCompose(loading -> loading)
+                    .whenComplete((attributes, throwable) -> {
+                        if (throwable != null) {
+                            UtilLogger.logger().ifPresent(logger -> logger.error("Error loading data for " + player.getUniqueId() + " " + player.getName(), throwable));
+                            return;
                         }
 
-                        player.setAttribute(attribute);
-                    }
-                });
-            });
+                        for (PlayerAttributeData attributeDatum : this.manager.attributeData) {
+                            Attribute<?> attribute = this.findAttribute(attributeDatum, attributes);
+
+                            if (attribute == null) {
+                                continue;
+                            }
+
+                            player.setAttribute(attribute);
+                        }
+                    }));
         }
 
         private Attribute<?> findAttribute(PlayerAttributeData attributeDatum,